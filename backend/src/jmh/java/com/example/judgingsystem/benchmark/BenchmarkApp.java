@@ -0,0 +1,178 @@
+package com.example.judgingsystem.benchmark;
+
+import com.example.judgingsystem.JudgingSystemApplication;
+import com.example.judgingsystem.model.Criterion;
+import com.example.judgingsystem.model.Event;
+import com.example.judgingsystem.model.Role;
+import com.example.judgingsystem.model.User;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import com.example.judgingsystem.service.CriterionAggregateService;
+import com.example.judgingsystem.service.ScoreWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The whole application booted against a private in-memory H2 database, plus helpers to
+ * seed events of a given size straight through JDBC and to act as a given user.
+ */
+final class BenchmarkApp implements AutoCloseable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String passwordHash;
+    private final AtomicInteger users = new AtomicInteger();
+
+    /**
+     * Ids and names of an event written by {@link #seed}.
+     */
+    record SeededEvent(long eventId, String organizerEmail, List<Long> teamIds, List<Long> judgeIds,
+                       List<String> judgeEmails, List<String> criterionNames) {
+    }
+
+    private BenchmarkApp(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.jdbcTemplate = bean(JdbcTemplate.class);
+        this.transactionTemplate = bean(TransactionTemplate.class);
+        this.passwordHash = bean(PasswordEncoder.class).encode("password123");
+    }
+
+    static BenchmarkApp start(Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.profiles.active", "bench");
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:bench" + DATABASES.incrementAndGet()
+                + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE");
+        defaults.put("spring.datasource.username", "sa");
+        defaults.put("spring.datasource.password", "");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create");
+        defaults.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        defaults.put("server.port", "0");
+        defaults.put("management.server.port", "-1");
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("jwt.secret", "myFixedSecretKeyForDemoPurposesThatIsLongEnoughForHS512AlgorithmSecurityRequirements"
+                + "1234567890abcdefghij1234567890");
+        defaults.putAll(properties);
+        // Passed as command line arguments so they win over application.properties and the dev profile
+        String[] args = defaults.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new BenchmarkApp(new SpringApplicationBuilder(JudgingSystemApplication.class).run(args));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Writes an event with the given number of teams, judges and equally weighted
+     * criteria, where the first {@code scoredJudges} judges have scored every team.
+     */
+    SeededEvent seed(int teams, int judges, int criteria, int scoredJudges) {
+        UserRepository userRepository = bean(UserRepository.class);
+        User organizer = userRepository.save(newUser(Role.ORGANIZER, null));
+
+        Event event = new Event();
+        event.setName("Benchmark " + organizer.getId());
+        event.setDate(LocalDate.now());
+        event.setOrganizer(organizer);
+        List<Criterion> criterionList = new ArrayList<>();
+        for (int c = 0; c < criteria; c++) {
+            Criterion criterion = new Criterion();
+            criterion.setName("Criterion " + c);
+            criterion.setWeight(1.0 / criteria);
+            criterion.setEvent(event);
+            criterionList.add(criterion);
+        }
+        event.setCriteria(criterionList);
+        event = bean(EventRepository.class).save(event);
+        long eventId = event.getId();
+
+        List<Object[]> teamRows = new ArrayList<>(teams);
+        for (int t = 0; t < teams; t++) {
+            teamRows.add(new Object[]{"Team " + t, t + 1, "Description of team " + t, eventId});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_name, team_number, description, event_id) values (?, ?, ?, ?)",
+                teamRows);
+        List<Long> teamIds = bean(TeamRepository.class).findIdsByEventId(eventId);
+
+        List<Long> judgeIds = new ArrayList<>(judges);
+        List<String> judgeEmails = new ArrayList<>(judges);
+        for (int j = 0; j < judges; j++) {
+            User judge = addJudge(event);
+            judgeIds.add(judge.getId());
+            judgeEmails.add(judge.getEmail());
+        }
+
+        long[] criterionIds = criterionList.stream().mapToLong(Criterion::getId).toArray();
+        Random random = new Random(eventId);
+        ScoreWriter scoreWriter = bean(ScoreWriter.class);
+        for (int j = 0; j < scoredJudges; j++) {
+            List<ScoreWriter.NewScore> scores = new ArrayList<>(teams);
+            for (Long teamId : teamIds) {
+                int[] values = new int[criteria];
+                double finalScore = 0.0;
+                for (int c = 0; c < criteria; c++) {
+                    values[c] = 1 + random.nextInt(10);
+                    finalScore += values[c] * (1.0 / criteria);
+                }
+                scores.add(new ScoreWriter.NewScore(judgeIds.get(j), teamId, finalScore, "Comment from judge " + j,
+                        null, criterionIds, values));
+            }
+            transactionTemplate.executeWithoutResult(status -> scoreWriter.insert(scores));
+        }
+        bean(CriterionAggregateService.class).rebuild(eventId);
+
+        return new SeededEvent(eventId, organizer.getEmail(), teamIds, judgeIds, judgeEmails,
+                criterionList.stream().map(Criterion::getName).toList());
+    }
+
+    User addJudge(Event event) {
+        return bean(UserRepository.class).save(newUser(Role.JUDGE, event));
+    }
+
+    User addJudge(long eventId) {
+        return addJudge(bean(EventRepository.class).findById(eventId).orElseThrow());
+    }
+
+    private User newUser(Role role, Event event) {
+        int n = users.incrementAndGet();
+        User user = new User();
+        user.setName(role == Role.JUDGE ? "Judge " + n : "Organizer " + n);
+        user.setEmail(role.name().toLowerCase() + n + "@bench.local");
+        user.setPassword(passwordHash);
+        user.setRole(role);
+        user.setEvent(event);
+        return user;
+    }
+
+    /**
+     * Makes the calling thread act as the given user, as the JWT filter would.
+     */
+    static void authenticate(String email, Role role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))));
+    }
+
+    @Override
+    public void close() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+}
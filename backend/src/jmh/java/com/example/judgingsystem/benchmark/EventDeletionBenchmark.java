@@ -0,0 +1,97 @@
+package com.example.judgingsystem.benchmark;
+
+import com.example.judgingsystem.model.Event;
+import com.example.judgingsystem.model.Role;
+import com.example.judgingsystem.model.Team;
+import com.example.judgingsystem.model.User;
+import com.example.judgingsystem.repository.CriterionAggregateRepository;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.JudgeCriterionAggregateRepository;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import com.example.judgingsystem.service.EventDeletionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deleting a fully scored event (200 teams x 50 judges = 10k scores by default), once
+ * with the set-based delete and once the way deleteEvent used to do it, entity by entity.
+ * Each invocation deletes a freshly seeded event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 8)
+@Measurement(iterations = 10)
+public class EventDeletionBenchmark {
+
+    @Param("200")
+    int teams;
+
+    @Param("50")
+    int judges;
+
+    @Param("3")
+    int criteria;
+
+    private BenchmarkApp app;
+    private long eventId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start(Map.of());
+    }
+
+    @Setup(Level.Invocation)
+    public void seedEvent() {
+        eventId = app.seed(teams, judges, criteria, judges).eventId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public void bulkDelete() {
+        app.bean(EventDeletionService.class).delete(eventId);
+    }
+
+    @Benchmark
+    public void entityByEntityDelete() {
+        EventRepository eventRepository = app.bean(EventRepository.class);
+        TeamRepository teamRepository = app.bean(TeamRepository.class);
+        ScoreRepository scoreRepository = app.bean(ScoreRepository.class);
+        UserRepository userRepository = app.bean(UserRepository.class);
+        // The aggregate tables postdate the old code; clear them so the cascade can proceed
+        app.bean(TransactionTemplate.class).executeWithoutResult(status -> {
+            app.bean(CriterionAggregateRepository.class).deleteByEventId(eventId);
+            app.bean(JudgeCriterionAggregateRepository.class).deleteByEventId(eventId);
+        });
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        for (Team team : teamRepository.findByEvent(event)) {
+            scoreRepository.deleteAll(scoreRepository.findByTeam(team));
+        }
+        for (User judge : userRepository.findByRoleAndEventId(Role.JUDGE, eventId)) {
+            judge.setEvent(null);
+            userRepository.save(judge);
+        }
+        eventRepository.delete(event);
+    }
+}
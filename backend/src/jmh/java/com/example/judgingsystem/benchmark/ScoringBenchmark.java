@@ -0,0 +1,117 @@
+package com.example.judgingsystem.benchmark;
+
+import com.example.judgingsystem.controller.JudgeController;
+import com.example.judgingsystem.controller.OrganizerController;
+import com.example.judgingsystem.model.Role;
+import com.example.judgingsystem.model.User;
+import com.example.judgingsystem.service.LeaderboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request handlers behind the judging and leaderboard screens, called in-process
+ * against a seeded H2 database. Every benchmark runs in its own fork, so the scores
+ * {@link #submitScore} adds never leak into the read benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ScoringBenchmark {
+
+    @Param("200")
+    int teams;
+
+    @Param("20")
+    int judges;
+
+    @Param("4")
+    int criteria;
+
+    private BenchmarkApp app;
+    private BenchmarkApp.SeededEvent event;
+    private JudgeController judgeController;
+    private OrganizerController organizerController;
+    private LeaderboardService leaderboardService;
+
+    // submitScore works through fresh judges, each scoring every team once
+    private User judge;
+    private int nextTeam;
+    private Map<String, Object> scoreBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start(Map.of());
+        event = app.seed(teams, judges, criteria, judges);
+        judgeController = app.bean(JudgeController.class);
+        organizerController = app.bean(OrganizerController.class);
+        leaderboardService = app.bean(LeaderboardService.class);
+        scoreBody = new HashMap<>();
+        for (String criterion : event.criterionNames()) {
+            scoreBody.put(criterion, 7);
+        }
+        scoreBody.put("comment", "Benchmark score");
+        nextTeam = teams;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Object submitScore() {
+        if (nextTeam == teams) {
+            judge = app.addJudge(event.eventId());
+            nextTeam = 0;
+        }
+        BenchmarkApp.authenticate(judge.getEmail(), Role.JUDGE);
+        return judgeController.submitScore(event.teamIds().get(nextTeam++), scoreBody);
+    }
+
+    @Benchmark
+    public Object getLeaderboard() {
+        BenchmarkApp.authenticate(event.organizerEmail(), Role.ORGANIZER);
+        return organizerController.getLeaderboard(event.eventId(), null, unconditional());
+    }
+
+    @Benchmark
+    public void rebuildLeaderboard() {
+        leaderboardService.rebuild(event.eventId());
+    }
+
+    @Benchmark
+    public Map<String, Object> getDetailedScores() {
+        BenchmarkApp.authenticate(event.organizerEmail(), Role.ORGANIZER);
+        return organizerController.getDetailedScores(event.eventId());
+    }
+
+    @Benchmark
+    public Object getTeamsToScore() throws InterruptedException {
+        BenchmarkApp.authenticate(event.judgeEmails().get(0), Role.JUDGE);
+        return judgeController.getTeamsToScore(unconditional());
+    }
+
+    // No If-None-Match, so every call builds the full response rather than a 304
+    private static ServletWebRequest unconditional() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+}
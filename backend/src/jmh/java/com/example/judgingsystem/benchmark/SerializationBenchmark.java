@@ -0,0 +1,187 @@
+package com.example.judgingsystem.benchmark;
+
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.EventSummary;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ScoreMatrix;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.model.Criterion;
+import com.example.judgingsystem.model.Event;
+import com.example.judgingsystem.model.NormalizationMethod;
+import com.example.judgingsystem.model.Role;
+import com.example.judgingsystem.model.Team;
+import com.example.judgingsystem.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure-CPU cost of turning the leaderboard and score matrix responses into JSON, with an
+ * ObjectMapper configured the way Spring MVC configures its own. The team and judge
+ * lists are serialized both as the entities they used to be returned as and as the
+ * summaries they are returned as now.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    @Param("200")
+    int teams;
+
+    @Param("20")
+    int judges;
+
+    @Param("4")
+    int criteria;
+
+    private ObjectMapper objectMapper;
+    private List<Map<String, Object>> leaderboard;
+    private ScoreMatrix matrix;
+    private List<TeamSummary> teamSummaries;
+    private List<Team> teamEntities;
+    private List<JudgeSummary> judgeSummaries;
+    private List<User> judgeEntities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SplittableRandom random = new SplittableRandom(42);
+
+        List<JudgeSummary> judgeList = new ArrayList<>(judges);
+        for (int j = 0; j < judges; j++) {
+            judgeList.add(new JudgeSummary((long) j, "Judge " + j, "judge" + j + "@bench.local"));
+        }
+        List<CriterionSummary> criterionList = new ArrayList<>(criteria);
+        for (int c = 0; c < criteria; c++) {
+            criterionList.add(new CriterionSummary((long) c, "Criterion " + c, 1.0 / criteria));
+        }
+
+        leaderboard = new ArrayList<>(teams);
+        List<ScoreMatrix.Row> rows = new ArrayList<>(teams);
+        for (int t = 0; t < teams; t++) {
+            TeamSummary team = new TeamSummary((long) t, "Team " + t, t + 1, "Description of team " + t);
+            Double[] finalScores = new Double[judges];
+            String[] comments = new String[judges];
+            Integer[][] values = new Integer[judges][];
+            double sum = 0.0;
+            for (int j = 0; j < judges; j++) {
+                values[j] = new Integer[criteria];
+                double finalScore = 0.0;
+                for (int c = 0; c < criteria; c++) {
+                    values[j][c] = random.nextInt(1, 11);
+                    finalScore += values[j][c] * (1.0 / criteria);
+                }
+                finalScores[j] = finalScore;
+                comments[j] = "Comment from judge " + j;
+                sum += finalScore;
+            }
+            rows.add(new ScoreMatrix.Row(team, sum / judges, judges, finalScores, comments, values));
+            leaderboard.add(Map.of("team", team, "averageScore", sum / judges));
+        }
+        matrix = new ScoreMatrix(new EventSummary(1L, "Benchmark", LocalDate.now()), judgeList, criterionList, rows);
+
+        Event event = event(criterionList);
+        teamSummaries = new ArrayList<>(teams);
+        teamEntities = new ArrayList<>(teams);
+        for (ScoreMatrix.Row row : rows) {
+            TeamSummary summary = row.getTeam();
+            teamSummaries.add(summary);
+            Team team = new Team();
+            team.setId(summary.getId());
+            team.setTeamName(summary.getTeamName());
+            team.setTeamNumber(summary.getTeamNumber());
+            team.setDescription(summary.getDescription());
+            team.setEvent(event);
+            teamEntities.add(team);
+        }
+        judgeSummaries = judgeList;
+        judgeEntities = new ArrayList<>(judges);
+        for (JudgeSummary summary : judgeList) {
+            judgeEntities.add(user(summary.getId(), summary.getName(), summary.getEmail(), Role.JUDGE, event));
+        }
+    }
+
+    private static Event event(List<CriterionSummary> criterionList) {
+        Event event = new Event();
+        event.setId(1L);
+        event.setName("Benchmark");
+        event.setDate(LocalDate.now());
+        event.setNormalization(NormalizationMethod.NONE);
+        event.setOrganizer(user(0L, "Organizer", "organizer@bench.local", Role.ORGANIZER, null));
+        List<Criterion> criteria = new ArrayList<>();
+        for (CriterionSummary summary : criterionList) {
+            Criterion criterion = new Criterion();
+            criterion.setId(summary.getId());
+            criterion.setName(summary.getName());
+            criterion.setWeight(summary.getWeight());
+            criterion.setEvent(event);
+            criteria.add(criterion);
+        }
+        event.setCriteria(criteria);
+        return event;
+    }
+
+    private static User user(Long id, String name, String email, Role role, Event event) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        // A BCrypt hash is 60 characters
+        user.setPassword("$2a$10$" + "x".repeat(53));
+        user.setRole(role);
+        user.setEvent(event);
+        return user;
+    }
+
+    @Benchmark
+    public byte[] leaderboard() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(leaderboard);
+    }
+
+    @Benchmark
+    public byte[] scoreMatrix() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(matrix);
+    }
+
+    @Benchmark
+    public byte[] teamEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(teamEntities);
+    }
+
+    @Benchmark
+    public byte[] teamSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(teamSummaries);
+    }
+
+    @Benchmark
+    public byte[] judgeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(judgeEntities);
+    }
+
+    @Benchmark
+    public byte[] judgeSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(judgeSummaries);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.model.NormalizationMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure-CPU cost of the leaderboard's score aggregation: folding one new score into a
+ * fully scored grid, and recomputing every judge's normalization from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NormalizationBenchmark {
+
+    @Param("500")
+    int teams;
+
+    @Param("50")
+    int judges;
+
+    @Param({"NONE", "Z_SCORE", "RANK_PERCENTILE"})
+    NormalizationMethod method;
+
+    private ScoreGrid grid;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        grid = new ScoreGrid(NormalizationMethod.NONE);
+        for (int t = 0; t < teams; t++) {
+            grid.addTeam(t);
+        }
+        for (int j = 0; j < judges; j++) {
+            for (int t = 0; t < teams; t++) {
+                grid.put(t, j, random.nextInt(1, 101) / 10.0);
+            }
+        }
+        grid.normalizeAll(method);
+    }
+
+    @Benchmark
+    public double applyScore() {
+        // Overwriting an existing cell keeps the grid's size steady across invocations
+        grid.put(random.nextInt(teams), random.nextInt(judges), random.nextInt(1, 101) / 10.0);
+        return grid.scoreAt(0);
+    }
+
+    @Benchmark
+    public double recomputeAll() {
+        grid.normalizeAll(method);
+        return grid.scoreAt(0);
+    }
+}
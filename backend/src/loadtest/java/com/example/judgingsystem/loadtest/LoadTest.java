@@ -0,0 +1,192 @@
+package com.example.judgingsystem.loadtest;
+
+import com.example.judgingsystem.JudgingSystemApplication;
+import com.example.judgingsystem.loadtest.EventSeeder.SeededEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a live judging session over HTTP: judges log in, poll their remaining
+ * teams and score them one by one with some think time in between, while organizers
+ * keep refreshing the leaderboard and the detailed scores. Each simulated user is its
+ * own virtual thread and waits for its previous response, so the reported latencies
+ * are what a user of the screens would see.
+ *
+ * With {@code --submit=queue} judges hand their scores to the ingestion queue instead
+ * of storing them synchronously.
+ *
+ * Without {@code --target} the application is started in-process on the
+ * {@code embedded} profile (in-memory H2). A warmup session against a separate event
+ * runs first and is not reported.
+ */
+public class LoadTest {
+
+    static final String LOGIN = "POST /auth/login";
+    static final String TEAMS_TO_SCORE = "GET /judge/teams";
+    static final String SUBMIT_SCORE = "POST /judge/teams/{id}/score";
+    static final String QUEUE_SCORE = "POST /judge/scores/queue";
+    static final String LEADERBOARD = "GET /organizer/events/{id}/leaderboard";
+    static final String DETAILED_SCORES = "GET /organizer/events/{id}/detailed-scores";
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+
+    LoadTest(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.target();
+        if (baseUrl == null) {
+            app = SpringApplication.run(JudgingSystemApplication.class, options.applicationArgs().toArray(String[]::new));
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        }
+        try {
+            System.out.printf("Load test against %s: %d judges, %d organizers, %d teams, %d criteria, %s scores%n",
+                    baseUrl, options.judges(), options.organizers(), options.teams(), options.criteria(),
+                    options.queueScores() ? "queued" : "synchronous");
+            if (app != null) {
+                System.out.println("Application arguments: " + String.join(" ", options.applicationArgs()));
+            }
+            new LoadTest(options, baseUrl).run();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    void run() throws Exception {
+        if (options.warmupSeconds() > 0) {
+            System.out.printf("Warming up for %d s%n", options.warmupSeconds());
+            ApiClient client = new ApiClient(baseUrl, new EndpointStats());
+            session(client, EventSeeder.seed(client, options.teams(), options.criteria(), Math.min(options.judges(), 10)),
+                    options.warmupSeconds());
+        }
+
+        ApiClient seeder = new ApiClient(baseUrl, new EndpointStats());
+        SeededEvent event = EventSeeder.seed(seeder, options.teams(), options.criteria(), options.judges());
+        System.out.printf("Measuring for %d s on event %d%n", options.durationSeconds(), event.eventId());
+        EndpointStats stats = new EndpointStats();
+        session(new ApiClient(baseUrl, stats), event, options.durationSeconds());
+        System.out.println();
+        stats.report(System.out, Path.of(options.reportDirectory()));
+    }
+
+    private void session(ApiClient client, SeededEvent event, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> users = new ArrayList<>();
+            for (String judgeEmail : event.judgeEmails()) {
+                users.add(executor.submit(() -> judge(client, event, judgeEmail, deadline)));
+            }
+            for (int o = 0; o < options.organizers(); o++) {
+                users.add(executor.submit(() -> organizer(client, event, deadline)));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        }
+    }
+
+    private Void judge(ApiClient client, SeededEvent event, String email, long deadline) throws InterruptedException {
+        String token = signIn(client, email, deadline);
+        if (token == null) {
+            return null;
+        }
+        JsonNode teams = teamsToScore(client, token);
+        while (System.nanoTime() < deadline) {
+            if (teams.isEmpty()) {
+                pause(options.thinkMillis(), deadline);
+                teams = teamsToScore(client, token);
+                continue;
+            }
+            long teamId = teams.get(ThreadLocalRandom.current().nextInt(teams.size())).get("id").asLong();
+            pause(options.thinkMillis(), deadline);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            Map<String, Object> scores = new HashMap<>();
+            for (String criterion : event.criterionNames()) {
+                scores.put(criterion, 1 + ThreadLocalRandom.current().nextInt(10));
+            }
+            if (options.queueScores()) {
+                // The next poll of /judge/teams waits until the queued score is stored
+                client.post(QUEUE_SCORE, "/judge/scores/queue", token,
+                        Map.of("teamId", teamId, "comment", "Scored under load", "scores", scores));
+            } else {
+                scores.put("comment", "Scored under load");
+                client.post(SUBMIT_SCORE, "/judge/teams/" + teamId + "/score", token, scores);
+            }
+            teams = teamsToScore(client, token);
+        }
+        return null;
+    }
+
+    private Void organizer(ApiClient client, SeededEvent event, long deadline) throws InterruptedException {
+        String token = signIn(client, event.organizerEmail(), deadline);
+        if (token == null) {
+            return null;
+        }
+        // Organizers open their dashboards at different moments
+        pause(options.refreshMillis(), deadline);
+        while (System.nanoTime() < deadline) {
+            client.get(LEADERBOARD, "/organizer/events/" + event.eventId() + "/leaderboard", token);
+            pause(options.refreshMillis(), deadline);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            client.get(DETAILED_SCORES, "/organizer/events/" + event.eventId() + "/detailed-scores", token);
+            pause(options.refreshMillis(), deadline);
+        }
+        return null;
+    }
+
+    /**
+     * Logs in, retrying every second while the server turns the login down, e.g. when
+     * it sheds load. Returns null if the deadline passes first.
+     */
+    private static String signIn(ApiClient client, String email, long deadline) throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            ApiClient.Response response = client.post(LOGIN, "/auth/login", null,
+                    Map.of("email", email, "password", EventSeeder.PASSWORD));
+            if (response.ok()) {
+                return response.json().get("token").asText();
+            }
+            Thread.sleep(Math.min(1000, Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))));
+        }
+        return null;
+    }
+
+    private static JsonNode teamsToScore(ApiClient client, String token) throws InterruptedException {
+        ApiClient.Response response = client.get(TEAMS_TO_SCORE, "/judge/teams", token);
+        // A failed poll is already counted as an error; the judge just tries again later
+        return response.ok() ? response.json() : JsonNodeFactory.instance.arrayNode();
+    }
+
+    /**
+     * Sleeps for an exponentially distributed time with the given mean, but never
+     * past the deadline.
+     */
+    private static void pause(long meanMillis, long deadline) throws InterruptedException {
+        long millis = (long) (-meanMillis * Math.log(1.0 - ThreadLocalRandom.current().nextDouble()));
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        Thread.sleep(Math.max(0, Math.min(millis, remaining)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.judgingsystem.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line of the load test. {@code --name=value} options it does not know are
+ * handed to the embedded application, e.g. {@code --spring.profiles.active=embedded,prod}.
+ */
+record LoadTestOptions(String target, int judges, int organizers, int teams, int criteria,
+                       int warmupSeconds, int durationSeconds, long thinkMillis, long refreshMillis,
+                       boolean queueScores, String reportDirectory, List<String> applicationArgs) {
+
+    static LoadTestOptions parse(String[] args) {
+        String target = null;
+        int judges = 50;
+        int organizers = 5;
+        int teams = 100;
+        int criteria = 4;
+        int warmup = 10;
+        int duration = 60;
+        long think = 2000;
+        long refresh = 2000;
+        boolean queueScores = false;
+        String reportDirectory = "target/loadtest";
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String value = arg.substring(equals + 1);
+            switch (arg.substring(2, equals)) {
+                case "target" -> target = value;
+                case "judges" -> judges = Integer.parseInt(value);
+                case "organizers" -> organizers = Integer.parseInt(value);
+                case "teams" -> teams = Integer.parseInt(value);
+                case "criteria" -> criteria = Integer.parseInt(value);
+                case "warmup" -> warmup = Integer.parseInt(value);
+                case "duration" -> duration = Integer.parseInt(value);
+                case "think-ms" -> think = Long.parseLong(value);
+                case "refresh-ms" -> refresh = Long.parseLong(value);
+                case "submit" -> queueScores = switch (value) {
+                    case "sync" -> false;
+                    case "queue" -> true;
+                    default -> throw new IllegalArgumentException("--submit must be sync or queue but got " + value);
+                };
+                case "report-dir" -> reportDirectory = value;
+                default -> applicationArgs.add(arg);
+            }
+        }
+        if (applicationArgs.stream().noneMatch(arg -> arg.startsWith("--spring.profiles.active="))) {
+            applicationArgs.add("--spring.profiles.active=embedded");
+        }
+        return new LoadTestOptions(target, judges, organizers, teams, criteria, warmup, duration, think, refresh,
+                queueScores, reportDirectory, applicationArgs);
+    }
+}
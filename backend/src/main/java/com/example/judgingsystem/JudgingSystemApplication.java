@@ -2,8 +2,10 @@ package com.example.judgingsystem;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JudgingSystemApplication {
 
     public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.example.judgingsystem.config;
 
 import com.example.judgingsystem.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +17,9 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    // EventSource cannot set headers, so streams are opened with a stream token in this parameter
+    static final String STREAM_TOKEN_PARAMETER = "access_token";
+
     private JwtUtil jwtUtil;
     private UserDetailsServiceImpl userDetailsService;
 
@@ -29,8 +33,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
-        if (token != null && jwtUtil.validateToken(token)) {
-            String email = jwtUtil.getEmailFromToken(token);
+        boolean fromQuery = false;
+        if (token == null && isStreamRequest(request)) {
+            token = request.getParameter(STREAM_TOKEN_PARAMETER);
+            fromQuery = true;
+        }
+        Claims claims = token != null ? jwtUtil.parse(token) : null;
+        // Stream tokens only open streams, and no other token is taken from a URL
+        if (claims != null && JwtUtil.isStreamToken(claims) == fromQuery) {
+            String email = claims.getSubject();
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
@@ -39,6 +50,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/stream");
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,35 +1,166 @@
 package com.example.judgingsystem.config;
 
+import com.example.judgingsystem.dto.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
+    private static final String USE_CLAIM = "use";
+    private static final String STREAM_USE = "stream";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
+    @Value("${jwt.token-cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+    @Value("${jwt.token-cache.max-ttl:PT15M}")
+    private Duration tokenCacheMaxTtl;
+    @Value("${jwt.stream-token-ttl:PT1M}")
+    private Duration streamTokenTtl;
     private int jwtExpirationMs = 86400000;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    // Claims of tokens whose signature has already been verified, dropped when the token expires.
+    // Keyed by the token's SHA-256 digest so the bearer credentials themselves are not held.
+    private Cache<TokenHash, Claims> verifiedTokens;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        // The secret has always been read as base64, keep it that way so issued tokens stay valid
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new Expiry<TokenHash, Claims>() {
+                    @Override
+                    public long expireAfterCreate(TokenHash token, Claims claims, long currentTime) {
+                        long untilExpiry = claims.getExpiration() == null ? Long.MAX_VALUE
+                                : claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return Duration.ofMillis(Math.max(0, Math.min(untilExpiry, tokenCacheMaxTtl.toMillis()))).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenHash token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenHash token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.tokens");
+        verifyTimer = Timer.builder("jwt.verify")
+                .description("Signature check of tokens not found in the cache")
+                .register(meterRegistry);
+    }
 
     public String generateToken(String email) {
         return Jwts.builder()
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    /**
+     * A token that only opens live update streams. EventSource cannot send an
+     * Authorization header, so it travels in the stream URL, where it may end up in
+     * logs; it is only accepted there, and only for {@code jwt.stream-token-ttl}.
+     */
+    public String generateStreamToken(String email) {
+        return Jwts.builder()
+                .setSubject(email)
+                .claim(USE_CLAIM, STREAM_USE)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + streamTokenTtl.toMillis()))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    public Duration getStreamTokenTtl() {
+        return streamTokenTtl;
+    }
+
+    public static boolean isStreamToken(Claims claims) {
+        return STREAM_USE.equals(claims.get(USE_CLAIM));
+    }
+
+    /**
+     * Verifies the token and returns its claims, or null when it is malformed, forged or
+     * expired. A token seen before is answered from the cache without another HMAC check.
+     */
+    public Claims parse(String token) {
+        TokenHash hash = TokenHash.of(token);
+        Claims claims = verifiedTokens.getIfPresent(hash);
+        if (claims != null) {
+            return claims;
+        }
+        long start = System.nanoTime();
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        verifiedTokens.put(hash, claims);
+        return claims;
+    }
+
     public String getEmailFromToken(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+        Claims claims = parse(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return parse(token) != null;
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = verifiedTokens.stats();
+        return new CacheStatistics(verifiedTokens.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), 0);
+    }
+
+    private record TokenHash(long h0, long h1, long h2, long h3) {
+
+        static TokenHash of(String token) {
+            try {
+                ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.UTF_8)));
+                return new TokenHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                // Every Java platform is required to provide SHA-256
+                throw new IllegalStateException(e);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.example.judgingsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small fixed pool that runs password checks. BCrypt is deliberately slow and purely
+ * CPU-bound, so a burst of logins at the start of an event would otherwise take every
+ * core away from judges who are already scoring. At most {@code login-admission.threads}
+ * logins hash at once (one per core by default) and at most
+ * {@code login-admission.queue-capacity} wait; beyond that a login is refused at once
+ * so the client can back off and retry.
+ *
+ * The waiting request thread adds the pool thread's SQL statements to its own count.
+ */
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public LoginExecutor(@Value("${login-admission.threads:0}") int threads,
+                         @Value("${login-admission.queue-capacity:32}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger created = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "login-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        new ExecutorServiceMetrics(executor, "login", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("auth.login.rejected")
+                .description("Logins turned away because the login queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the task on the login pool and waits for its result. Exceptions thrown by
+     * the task are rethrown as they are.
+     *
+     * @throws RejectedExecutionException right away when the queue is full
+     */
+    public <T> T call(Callable<T> task) throws InterruptedException {
+        // Written before the task completes, so visible once get() returns or throws
+        long[] queries = new long[1];
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                QueryCounter.begin();
+                try {
+                    return task.call();
+                } finally {
+                    queries[0] = QueryCounter.end();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            QueryCounter.add(queries[0]);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
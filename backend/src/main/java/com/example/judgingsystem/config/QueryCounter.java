@@ -0,0 +1,50 @@
+package com.example.judgingsystem.config;
+
+/**
+ * Number of SQL statements the current thread has sent since {@link #begin()}. A JDBC
+ * batch counts once, since it is one round-trip. Fed by the data source wrapper in
+ * {@link QueryCountingDataSourcePostProcessor}; statements outside a counted scope are
+ * not tracked.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new long[1]);
+    }
+
+    /**
+     * Ends the current scope and returns its count.
+     */
+    public static long end() {
+        long[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Count so far in the current scope, 0 outside one.
+     */
+    public static long current() {
+        long[] count = CURRENT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    static void increment() {
+        add(1);
+    }
+
+    /**
+     * Adds statements another thread sent on behalf of the current scope.
+     */
+    static void add(long queries) {
+        long[] count = CURRENT.get();
+        if (count != null) {
+            count[0] += queries;
+        }
+    }
+}
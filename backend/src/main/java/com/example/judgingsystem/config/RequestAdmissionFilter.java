@@ -0,0 +1,80 @@
+package com.example.judgingsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests being handled at once. On virtual threads Tomcat no
+ * longer bounds concurrency, so without this a burst turns into thousands of threads
+ * queued on the connection pool until they time out. Requests over the limit wait up
+ * to {@code request-admission.max-wait} for a slot and are then turned away with a
+ * 503 and a Retry-After header. Live update streams are long-lived and exempt.
+ *
+ * Registered after the security filter chain, so CORS headers are already set on the
+ * 503 and unauthenticated requests never take a slot.
+ */
+@Component
+@ConditionalOnProperty("request-admission.max-concurrent")
+public class RequestAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore slots;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public RequestAdmissionFilter(@Value("${request-admission.max-concurrent}") int maxConcurrent,
+                                  @Value("${request-admission.max-wait:PT1S}") Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+        Gauge.builder("http.server.requests.admitted", slots, s -> maxConcurrent - s.availablePermits())
+                .description("Requests holding an admission slot")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests turned away with a 503 because no admission slot freed up in time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getWriter().write("Server busy, please retry");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            slots.release();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.judgingsystem.config;
 
 import com.example.judgingsystem.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,10 +26,13 @@ public class SecurityConfig {
     private UserDetailsServiceImpl userDetailsService;
     @Autowired
     private JwtUtil jwtUtil;
+    // Raising it rehashes each stored password at the user's next successful login
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -48,10 +53,17 @@ public class SecurityConfig {
                     }
                     config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE"));
                     config.setAllowedHeaders(Arrays.asList("*"));
+                    // Lets the frontend wait as long as a 429 or 503 asks before retrying
+                    config.setExposedHeaders(Arrays.asList("Retry-After"));
                     return config;
                 }))
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/auth/**").permitAll()
+                        // Streaming responses (live update streams, exports) finish on an async dispatch after
+                        // the request itself was authorized; without this the SSE streams end in a 403
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .requestMatchers("/auth/**", "/error").permitAll()
+                        // Actuator is only served on the management port, which is not published
+                        .requestMatchers("/actuator/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, userDetailsService), UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,59 @@
+package com.example.judgingsystem.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs every virtual thread that stays pinned to its carrier (a blocking call inside
+ * {@code synchronized} or a native frame) for longer than the threshold, with the
+ * frames that pinned it. Uses the JDK's own {@code jdk.VirtualThreadPinned} flight
+ * recorder event, so it costs nothing while nothing pins.
+ */
+@Component
+@ConditionalOnProperty("virtual-threads.pinning-monitor.enabled")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    @Value("${virtual-threads.pinning-monitor.threshold:PT0.02S}")
+    private Duration threshold;
+
+    private RecordingStream recording;
+
+    @PostConstruct
+    void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED, this::report);
+        recording.startAsync();
+    }
+
+    private void report(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String stack = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining());
+        log.warn("Virtual thread {} pinned its carrier for {} ms{}", event.getThread() == null ? "?"
+                : event.getThread().getJavaName(), event.getDuration().toMillis(), stack);
+    }
+
+    @PreDestroy
+    void stop() {
+        recording.close();
+    }
+}
@@ -1,22 +1,31 @@
 package com.example.judgingsystem.controller;
 
+import com.example.judgingsystem.dto.CursorPage;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ListRequest;
 import com.example.judgingsystem.dto.LoginRequest;
 import com.example.judgingsystem.dto.LoginResponse;
 import com.example.judgingsystem.dto.RegisterRequest;
-import com.example.judgingsystem.model.Role;
 import com.example.judgingsystem.model.User;
 import com.example.judgingsystem.repository.UserRepository;
 import com.example.judgingsystem.config.JwtUtil;
+import com.example.judgingsystem.config.LoginExecutor;
+import com.example.judgingsystem.service.AuthenticatedUser;
+import com.example.judgingsystem.service.ListingService;
+import com.example.judgingsystem.service.PrincipalCache;
+import com.example.judgingsystem.service.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,15 +39,27 @@ public class AuthController {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private LoginExecutor loginExecutor;
+    @Autowired
+    private ListingService listingService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtil.generateToken(loginRequest.getEmail());
-        User user = userRepository.findByEmail(loginRequest.getEmail()).get();
-        return ResponseEntity.ok(new LoginResponse(jwt, user.getId(), user.getRole()));
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) throws InterruptedException {
+        Authentication authentication;
+        try {
+            authentication = loginExecutor.call(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many logins at once, please retry");
+        }
+        UserPrincipal user = ((AuthenticatedUser) authentication.getPrincipal()).getPrincipal();
+        String jwt = jwtUtil.generateToken(user.email());
+        return ResponseEntity.ok(new LoginResponse(jwt, user.id(), user.role()));
     }
 
     @PostMapping("/register")
@@ -52,14 +73,35 @@ public class AuthController {
         user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
         user.setRole(registerRequest.getRole());
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         return ResponseEntity.ok("User registered");
     }
 
+    /**
+     * Issues a short-lived token for opening a live update stream from a browser, as
+     * {@code ?access_token=} on the stream URL. Requires the usual bearer token.
+     */
+    @PostMapping("/stream-token")
+    public ResponseEntity<?> streamToken(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        return ResponseEntity.ok(Map.of("token", jwtUtil.generateStreamToken(user.getPrincipal().email()),
+                "expiresIn", jwtUtil.getStreamTokenTtl().toSeconds()));
+    }
+
     @GetMapping("/judges")
-    public List<Map<String, String>> getJudges() {
-        return userRepository.findByRole(Role.JUDGE).stream()
-            .filter(user -> user.getName() != null && user.getEmail() != null)
-            .map(user -> Map.of("name", user.getName(), "email", user.getEmail()))
+    public Object getJudges(ListRequest list) {
+        if (!list.isAll()) {
+            CursorPage<JudgeSummary> page = listingService.allJudges(list);
+            return new CursorPage<>(page.getItems().stream()
+                .map(judge -> Map.of("name", judge.getName(), "email", judge.getEmail()))
+                .collect(Collectors.toList()), page.getNextCursor());
+        }
+        // A projection, so the judges' events are not loaded one by one
+        return userRepository.findAllJudgeSummaries().stream()
+            .filter(judge -> judge.getName() != null && judge.getEmail() != null)
+            .map(judge -> Map.of("name", judge.getName(), "email", judge.getEmail()))
             .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,13 +1,45 @@
 package com.example.judgingsystem.controller;
 
+import com.example.judgingsystem.dto.BatchScoreRequest;
+import com.example.judgingsystem.dto.CursorPage;
+import com.example.judgingsystem.dto.ListRequest;
+import com.example.judgingsystem.dto.ScoreSubmission;
+import com.example.judgingsystem.dto.ScoredTeamRow;
+import com.example.judgingsystem.dto.SubmissionResult;
+import com.example.judgingsystem.dto.TeamSummary;
 import com.example.judgingsystem.model.*;
 import com.example.judgingsystem.repository.*;
+import com.example.judgingsystem.service.CriterionAggregateService;
+import com.example.judgingsystem.service.EventArchiveService;
+import com.example.judgingsystem.service.EventVersionService;
+import com.example.judgingsystem.service.ListingService;
+import com.example.judgingsystem.service.LiveUpdateService;
+import com.example.judgingsystem.service.PrincipalCache;
+import com.example.judgingsystem.service.ScoreIngestionService;
+import com.example.judgingsystem.service.ScoreSubmissionService;
+import com.example.judgingsystem.service.ScoreSubmittedEvent;
+import com.example.judgingsystem.service.ScoreWriter;
+import com.example.judgingsystem.service.ScoredTeamsCache;
+import com.example.judgingsystem.service.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -15,6 +47,9 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('JUDGE')")
 public class JudgeController {
 
+    // Browsers may keep the team list but must revalidate it with the ETag every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private TeamRepository teamRepository;
 
@@ -27,29 +62,76 @@ public class JudgeController {
     @Autowired
     private UserRepository userRepository;
 
-    private User getCurrentUser() {
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private ScoredTeamsCache scoredTeamsCache;
+
+    @Autowired
+    private ScoreSubmissionService scoreSubmissionService;
+
+    @Autowired
+    private CriterionAggregateService criterionAggregateService;
+
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private ScoreIngestionService scoreIngestionService;
+
+    @Autowired
+    private EventArchiveService eventArchiveService;
+
+    private UserPrincipal getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email).orElseThrow();
+        return principalCache.findByEmail(email).orElseThrow();
     }
 
     @GetMapping("/teams")
-    public List<Team> getTeamsToScore() {
-        User judge = getCurrentUser();
-        Event event = judge.getEvent();
-        List<Team> allTeams = teamRepository.findByEvent(event);
-        return allTeams.stream()
-                .filter(team -> scoreRepository.findByTeam(team).stream()
-                        .noneMatch(score -> score.getJudge().equals(judge)))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<TeamSummary>> getTeamsToScore(WebRequest request) throws InterruptedException {
+        UserPrincipal judge = getCurrentUser();
+        awaitQueuedScores(judge);
+        String etag = eventVersionService.etag(judge.eventId(), judge.id());
+        if (request.checkNotModified(etag)) {
+            // checkNotModified has already set the status and the ETag
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag)
+                .body(teamRepository.findUnscoredSummariesByEventIdAndJudgeId(judge.eventId(), judge.id()));
     }
 
     @GetMapping("/scored-teams")
-    public List<Map<String, Object>> getScoredTeams() {
-        User judge = getCurrentUser();
-        List<Score> scores = scoreRepository.findByJudge(judge);
+    public Object getScoredTeams(ListRequest list) throws InterruptedException {
+        UserPrincipal judge = getCurrentUser();
+        awaitQueuedScores(judge);
+        if (!list.isAll()) {
+            CursorPage<ScoredTeamRow> page = listingService.scoredTeams(judge.id(), list);
+            Map<Long, Map<String, Object>> values = listingService.criterionValues(page.getItems());
+            List<Map<String, Object>> items = page.getItems().stream().map(row -> {
+                Map<String, Object> scoreData = new java.util.HashMap<>();
+                scoreData.put("team", new TeamSummary(row.teamId(), row.teamName(), row.teamNumber(), row.description()));
+                scoreData.put("score", row.finalScore());
+                scoreData.put("comment", row.comment());
+                scoreData.put("criteria", values.getOrDefault(row.scoreId(), Map.of()));
+                scoreData.put("timestamp", row.scoreId()); // Use ID as timestamp proxy
+                return scoreData;
+            }).collect(Collectors.toList());
+            return new CursorPage<>(items, page.getNextCursor());
+        }
+        List<Score> scores = scoreRepository.findWithCriteriaByJudgeId(judge.id());
         return scores.stream().map(score -> {
             Map<String, Object> scoreData = new java.util.HashMap<>();
-            scoreData.put("team", score.getTeam());
+            scoreData.put("team", toSummary(score.getTeam()));
             scoreData.put("score", score.getFinalScore());
             scoreData.put("comment", score.getComment());
 
@@ -65,20 +147,24 @@ public class JudgeController {
     }
 
     @PostMapping("/teams/{teamId}/score")
-    public Score submitScore(@PathVariable Long teamId, @RequestBody Map<String, Object> data) {
-        User judge = getCurrentUser();
-        Team team = teamRepository.findById(teamId).orElseThrow();
+    @Transactional
+    public SubmissionResult submitScore(@PathVariable Long teamId, @RequestBody Map<String, Object> data) {
+        UserPrincipal principal = getCurrentUser();
+        // Judge first, then team: the lock order every criterion aggregate writer follows
+        User judge = userRepository.findByIdForUpdate(principal.id()).orElseThrow();
+        Team team = teamRepository.findByIdForUpdate(teamId).orElseThrow();
         Event event = team.getEvent();
 
-        if (judge.getEvent() == null || !judge.getEvent().equals(event)) {
+        if (principal.eventId() == null || !principal.eventId().equals(event.getId())) {
             throw new RuntimeException("Judge not assigned to this team's event");
         }
+        // Checked under the team lock, which archiving takes before its snapshot
+        eventArchiveService.requireLive(event.getId());
 
-        // Check if already scored
-        boolean alreadyScored = scoreRepository.findByTeam(team).stream()
-                .anyMatch(score -> score.getJudge().equals(judge));
-        if (alreadyScored) {
-            throw new RuntimeException("Already scored this team");
+        // Check if already scored; the unique (judge, team) constraint settles concurrent submissions
+        if (scoredTeamsCache.hasScored(principal.id(), teamId)
+                || scoreRepository.existsByJudgeIdAndTeamId(principal.id(), teamId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already scored this team");
         }
 
         String comment = (String) data.get("comment");
@@ -89,9 +175,14 @@ public class JudgeController {
         score.setComment(comment);
 
         List<Criterion> criteria = criterionRepository.findByEvent(event);
+        long[] criterionIds = new long[criteria.size()];
+        int[] values = new int[criteria.size()];
         double finalScore = 0.0;
-        for (Criterion criterion : criteria) {
+        for (int c = 0; c < criteria.size(); c++) {
+            Criterion criterion = criteria.get(c);
             int value = ((Number) data.getOrDefault(criterion.getName(), 0)).intValue();
+            criterionIds[c] = criterion.getId();
+            values[c] = value;
             ScoreCriterion sc = new ScoreCriterion();
             sc.setScore(score);
             sc.setCriterion(criterion);
@@ -101,6 +192,77 @@ public class JudgeController {
         }
         score.setFinalScore(finalScore);
 
-        return scoreRepository.save(score);
+        Score saved;
+        try {
+            saved = scoreRepository.saveAndFlush(score);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already scored this team");
+        }
+        criterionAggregateService.record(event.getId(), List.of(new ScoreWriter.NewScore(
+                judge.getId(), team.getId(), finalScore, comment, null, criterionIds, values)));
+        eventPublisher.publishEvent(new ScoreSubmittedEvent(
+                event.getId(), team.getId(), judge.getId(), saved.getId(), saved.getFinalScore()));
+        return new SubmissionResult(null, team.getId(), SubmissionResult.Status.CREATED, saved.getId(),
+                saved.getFinalScore(), null);
+    }
+
+    @PostMapping("/scores/batch")
+    public List<SubmissionResult> submitScores(@RequestBody BatchScoreRequest request) {
+        UserPrincipal judge = getCurrentUser();
+        if (judge.eventId() == null) {
+            throw new RuntimeException("Judge not assigned to an event");
+        }
+        List<ScoreSubmission> submissions = request.getSubmissions() != null ? request.getSubmissions() : List.of();
+        return scoreSubmissionService.submitBatch(judge, submissions);
+    }
+
+    /**
+     * Queues a score for the ingestion writer and answers with a ticket right away. The
+     * body is one item of a batch submission.
+     */
+    @PostMapping("/scores/queue")
+    public ResponseEntity<?> queueScore(@RequestBody ScoreSubmission submission) {
+        UserPrincipal judge = getCurrentUser();
+        if (judge.eventId() == null) {
+            throw new RuntimeException("Judge not assigned to an event");
+        }
+        SubmissionResult ticket;
+        try {
+            ticket = scoreIngestionService.submit(judge, submission);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many scores at once, please retry");
+        }
+        return ResponseEntity.status(ticket.getStatus() == SubmissionResult.Status.QUEUED
+                ? HttpStatus.ACCEPTED : HttpStatus.OK).body(ticket);
+    }
+
+    // 404 when the server has no record of the ticket, such as one lost in a restart; submit it again under its id
+    @GetMapping("/scores/queue/{submissionId}")
+    public ResponseEntity<SubmissionResult> getQueuedScore(@PathVariable String submissionId) {
+        return ResponseEntity.of(scoreIngestionService.status(getCurrentUser(), submissionId));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUpdates(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        UserPrincipal judge = getCurrentUser();
+        if (judge.eventId() == null) {
+            throw new RuntimeException("Judge not assigned to an event");
+        }
+        return liveUpdateService.subscribe(judge.eventId(), lastEventId);
+    }
+
+    // Read-your-writes: a judge's own lists include every score the judge holds a ticket for
+    private void awaitQueuedScores(UserPrincipal judge) throws InterruptedException {
+        try {
+            scoreIngestionService.awaitWrites(judge.id());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Queued scores are not stored yet");
+        }
+    }
+
+    private static TeamSummary toSummary(Team team) {
+        return new TeamSummary(team.getId(), team.getTeamName(), team.getTeamNumber(), team.getDescription());
     }
-}
\ No newline at end of file
+}
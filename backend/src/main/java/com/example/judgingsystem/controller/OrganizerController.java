@@ -1,14 +1,46 @@
 package com.example.judgingsystem.controller;
 
+import com.example.judgingsystem.config.JwtUtil;
+import com.example.judgingsystem.dto.CacheStatistics;
+import com.example.judgingsystem.dto.CriterionAnalytics;
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.EventOverview;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ListRequest;
+import com.example.judgingsystem.dto.ScoreMatrix;
+import com.example.judgingsystem.dto.TeamImportReport;
+import com.example.judgingsystem.dto.TeamSummary;
 import com.example.judgingsystem.model.*;
 import com.example.judgingsystem.repository.*;
+import com.example.judgingsystem.service.CriterionAggregateService;
+import com.example.judgingsystem.service.EventArchiveService;
+import com.example.judgingsystem.service.EventDeletionService;
+import com.example.judgingsystem.service.EventSnapshot;
+import com.example.judgingsystem.service.EventVersionService;
+import com.example.judgingsystem.service.LeaderboardService;
+import com.example.judgingsystem.service.ListingService;
+import com.example.judgingsystem.service.LiveUpdateService;
+import com.example.judgingsystem.service.PrincipalCache;
+import com.example.judgingsystem.service.ScoreExportService;
+import com.example.judgingsystem.service.ScoreMatrixService;
+import com.example.judgingsystem.service.TeamImportService;
+import com.example.judgingsystem.service.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -18,6 +50,9 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('ORGANIZER')")
 public class OrganizerController {
 
+    // Browsers may keep these responses but must revalidate them with the ETag every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private EventRepository eventRepository;
 
@@ -36,85 +71,136 @@ public class OrganizerController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    private User getCurrentUser() {
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ScoreMatrixService scoreMatrixService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private TeamImportService teamImportService;
+
+    @Autowired
+    private ScoreExportService scoreExportService;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private EventDeletionService eventDeletionService;
+
+    @Autowired
+    private EventArchiveService eventArchiveService;
+
+    @Autowired
+    private CriterionAggregateService criterionAggregateService;
+
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    private UserPrincipal getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email).orElseThrow();
+        return principalCache.findByEmail(email).orElseThrow();
     }
 
     @PostMapping("/events")
     public Event createEvent(@RequestBody Event event) {
-        User organizer = getCurrentUser();
+        User organizer = userRepository.findById(getCurrentUser().id()).orElseThrow();
         event.setOrganizer(organizer);
+        if (event.getNormalization() == null) {
+            event.setNormalization(NormalizationMethod.NONE);
+        }
         // Set the event reference on each criterion
         if (event.getCriteria() != null) {
             for (Criterion criterion : event.getCriteria()) {
                 criterion.setEvent(event);
             }
         }
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventVersionService.bump(saved.getId());
+        return saved;
     }
 
     @GetMapping("/events")
-    public List<Map<String, Object>> getEvents() {
-        User organizer = getCurrentUser();
-        return eventRepository.findByOrganizer(organizer).stream().map(event -> {
-            Map<String, Object> eventData = new java.util.HashMap<>();
-            eventData.put("id", event.getId());
-            eventData.put("name", event.getName());
-            eventData.put("date", event.getDate());
-            eventData.put("teamCount", teamRepository.findByEvent(event).size());
-            eventData.put("judgeCount", userRepository.findAll().stream()
-                    .filter(u -> u.getRole() == Role.JUDGE && u.getEvent() != null && u.getEvent().getId().equals(event.getId()))
-                    .count());
-            return eventData;
-        }).collect(Collectors.toList());
+    public List<EventOverview> getEvents() {
+        UserPrincipal organizer = getCurrentUser();
+        return eventRepository.findOverviewsByOrganizerId(organizer.id());
     }
 
     @DeleteMapping("/events/{eventId}")
     public ResponseEntity<String> deleteEvent(@PathVariable Long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow();
-        User organizer = getCurrentUser();
-        if (!event.getOrganizer().equals(organizer)) {
+        Long organizerId = eventRepository.findOrganizerIdById(eventId).orElseThrow();
+        UserPrincipal organizer = getCurrentUser();
+        if (!organizerId.equals(organizer.id())) {
             return ResponseEntity.status(403).body("Not authorized to delete this event");
         }
-        // Delete scores for teams in this event
-        List<Team> teams = teamRepository.findByEvent(event);
-        for (Team team : teams) {
-            scoreRepository.deleteAll(scoreRepository.findByTeam(team));
-        }
-        // Clear event reference from judges
-        List<User> judges = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.JUDGE && u.getEvent() != null && u.getEvent().getId().equals(eventId))
-                .collect(Collectors.toList());
-        for (User judge : judges) {
-            judge.setEvent(null);
-            userRepository.save(judge);
-        }
-        eventRepository.delete(event);
+        eventDeletionService.delete(eventId);
+        eventArchiveService.forget(eventId);
+        eventVersionService.bump(eventId);
+        leaderboardService.evict(eventId);
+        principalCache.invalidateEvent(eventId);
+        liveUpdateService.close(eventId);
         return ResponseEntity.ok("Event deleted successfully");
     }
 
+    /**
+     * Freezes a finished event into a snapshot file that serves its results from then
+     * on; with {@code purge} its scores are also deleted from the database.
+     */
+    @PostMapping("/events/{eventId}/archive")
+    public ResponseEntity<String> archiveEvent(@PathVariable Long eventId,
+                                               @RequestParam(defaultValue = "false") boolean purge) throws IOException {
+        Long organizerId = eventRepository.findOrganizerIdById(eventId).orElseThrow();
+        if (!organizerId.equals(getCurrentUser().id())) {
+            return ResponseEntity.status(403).body("Not authorized to archive this event");
+        }
+        long size = eventArchiveService.archive(eventId, purge);
+        eventVersionService.bump(eventId);
+        principalCache.invalidateEvent(eventId);
+        liveUpdateService.close(eventId);
+        return ResponseEntity.ok("Event archived (" + size + " bytes)" + (purge ? ", scores purged" : ""));
+    }
+
     @PostMapping("/events/{eventId}/teams")
-    public Team addTeam(@PathVariable Long eventId, @RequestBody Team team) {
+    public TeamSummary addTeam(@PathVariable Long eventId, @RequestBody Team team) {
+        eventArchiveService.requireLive(eventId);
         Event event = eventRepository.findById(eventId).orElseThrow();
         // Check for duplicate team name and description
-        boolean exists = teamRepository.findByEvent(event).stream()
-                .anyMatch(t -> t.getTeamName().equals(team.getTeamName()) && t.getDescription().equals(team.getDescription()));
-        if (exists) {
+        if (teamRepository.existsByEventIdAndTeamNameAndDescription(eventId, team.getTeamName(), team.getDescription())) {
             throw new RuntimeException("Team with this name or number already exists in the event");
         }
         team.setEvent(event);
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        TeamSummary summary = toSummary(saved);
+        eventVersionService.bump(eventId);
+        leaderboardService.teamAdded(eventId, summary);
+        liveUpdateService.publish(eventId, LiveUpdateService.TEAM_ADDED, summary);
+        return summary;
     }
 
     @GetMapping("/events/{eventId}/teams")
-    public List<Team> getTeams(@PathVariable Long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow();
-        return teamRepository.findByEvent(event);
+    public ResponseEntity<?> getTeams(@PathVariable Long eventId, ListRequest list, WebRequest request) {
+        String etag = eventVersionService.etag(eventId);
+        if (request.checkNotModified(etag)) {
+            return notModified();
+        }
+        eventRepository.findSummaryById(eventId).orElseThrow();
+        Object body = list.isAll() ? teamRepository.findSummariesByEventId(eventId) : listingService.teams(eventId, list);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(body);
     }
 
     @PostMapping("/events/{eventId}/judges")
-    public User addJudge(@PathVariable Long eventId, @RequestBody Map<String, String> judgeData) {
+    public JudgeSummary addJudge(@PathVariable Long eventId, @RequestBody Map<String, String> judgeData) {
+        eventArchiveService.requireLive(eventId);
         Event event = eventRepository.findById(eventId).orElseThrow();
         String email = judgeData.get("email");
         User judge = userRepository.findByEmail(email).orElseGet(() -> {
@@ -125,133 +211,196 @@ public class OrganizerController {
             newUser.setRole(Role.JUDGE);
             return userRepository.save(newUser);
         });
+        Event previousEvent = judge.getEvent();
         if (judge.getRole() != Role.JUDGE) {
             judge.setRole(Role.JUDGE);
             judge = userRepository.save(judge);
         }
         judge.setEvent(event);
-        return userRepository.save(judge);
+        User saved = userRepository.save(judge);
+        principalCache.invalidate(email);
+        eventVersionService.bump(eventId);
+        if (previousEvent != null && !previousEvent.getId().equals(eventId)) {
+            eventVersionService.bump(previousEvent.getId());
+        }
+        JudgeSummary summary = new JudgeSummary(saved.getId(), saved.getName(), saved.getEmail());
+        liveUpdateService.publish(eventId, LiveUpdateService.JUDGE_ASSIGNED, summary);
+        return summary;
     }
 
     @GetMapping("/events/{eventId}/judges")
-    public List<User> getJudges(@PathVariable Long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow();
-        return userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.JUDGE && u.getEvent() != null && u.getEvent().getId().equals(eventId))
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getJudges(@PathVariable Long eventId, ListRequest list, WebRequest request) {
+        String etag = eventVersionService.etag(eventId);
+        if (request.checkNotModified(etag)) {
+            return notModified();
+        }
+        eventRepository.findSummaryById(eventId).orElseThrow();
+        Object body = list.isAll() ? userRepository.findJudgeSummariesByEventId(eventId)
+                : listingService.judges(eventId, list);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(body);
     }
 
     @GetMapping("/events/{eventId}/leaderboard")
-    public List<Map<String, Object>> getLeaderboard(@PathVariable Long eventId) {
+    public ResponseEntity<List<Map<String, Object>>> getLeaderboard(@PathVariable Long eventId,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    WebRequest request) {
+        String etag = eventVersionService.etag(eventId);
+        if (request.checkNotModified(etag)) {
+            return notModified();
+        }
+        List<Map<String, Object>> leaderboard = eventArchiveService.snapshot(eventId)
+                .map(snapshot -> snapshot.leaderboard(limit))
+                .orElseGet(() -> leaderboardService.getLeaderboard(eventId, limit));
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(leaderboard);
+    }
+
+    @PutMapping("/events/{eventId}/normalization")
+    public ResponseEntity<String> setNormalization(@PathVariable Long eventId,
+                                                   @RequestParam NormalizationMethod method) {
+        eventArchiveService.requireLive(eventId);
         Event event = eventRepository.findById(eventId).orElseThrow();
-        List<Team> teams = teamRepository.findByEvent(event);
-        return teams.stream().map(team -> {
-            List<Score> scores = scoreRepository.findByTeam(team);
-            double average = scores.stream().mapToDouble(Score::getFinalScore).average().orElse(0.0);
-            return Map.of("team", team, "averageScore", average);
-        }).sorted((a, b) -> Double.compare((Double) b.get("averageScore"), (Double) a.get("averageScore")))
-                .collect(Collectors.toList());
+        if (!event.getOrganizer().getId().equals(getCurrentUser().id())) {
+            return ResponseEntity.status(403).body("Not authorized to modify this event");
+        }
+        event.setNormalization(method);
+        eventRepository.save(event);
+        eventVersionService.bump(eventId);
+        leaderboardService.normalizationChanged(eventId, method);
+        return ResponseEntity.ok("Normalization set to " + method);
+    }
+
+    @PostMapping("/events/{eventId}/leaderboard/rebuild")
+    public ResponseEntity<String> rebuildLeaderboard(@PathVariable Long eventId) {
+        eventArchiveService.requireLive(eventId);
+        leaderboardService.rebuild(eventId);
+        eventVersionService.bump(eventId);
+        return ResponseEntity.ok("Leaderboard rebuilt");
+    }
+
+    @GetMapping("/events/{eventId}/score-matrix")
+    public ScoreMatrix getScoreMatrix(@PathVariable Long eventId) {
+        return scoreMatrix(eventId);
+    }
+
+    @GetMapping("/events/{eventId}/analytics")
+    public CriterionAnalytics getAnalytics(@PathVariable Long eventId) {
+        return criterionAggregateService.analytics(eventId);
+    }
+
+    @PostMapping("/events/{eventId}/analytics/rebuild")
+    public ResponseEntity<String> rebuildAnalytics(@PathVariable Long eventId) {
+        eventArchiveService.requireLive(eventId);
+        criterionAggregateService.rebuild(eventId);
+        eventVersionService.bump(eventId);
+        return ResponseEntity.ok("Analytics rebuilt");
     }
 
     @GetMapping("/events/{eventId}/detailed-scores")
     public Map<String, Object> getDetailedScores(@PathVariable Long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow();
-        List<Team> teams = teamRepository.findByEvent(event);
-        List<User> judges = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.JUDGE && u.getEvent() != null && u.getEvent().getId().equals(eventId))
-                .collect(Collectors.toList());
-        List<Criterion> criteria = criterionRepository.findByEvent(event);
-
-        // Create a matrix of team x judge scores
-        List<Map<String, Object>> teamScores = teams.stream().map(team -> {
+        ScoreMatrix matrix = scoreMatrix(eventId);
+        List<JudgeSummary> judges = matrix.getJudges();
+        List<CriterionSummary> criteria = matrix.getCriteria();
+
+        List<Map<String, Object>> teamScores = matrix.getRows().stream().map(row -> {
             Map<String, Object> teamData = new java.util.HashMap<>();
-            teamData.put("team", team);
+            teamData.put("team", row.getTeam());
 
-            // For each judge, find their score for this team
             Map<String, Object> judgeScores = new java.util.HashMap<>();
-            for (User judge : judges) {
-                Score score = scoreRepository.findByTeam(team).stream()
-                        .filter(s -> s.getJudge().equals(judge))
-                        .findFirst().orElse(null);
-
-                if (score != null) {
-                    Map<String, Object> scoreDetails = new java.util.HashMap<>();
-                    scoreDetails.put("finalScore", score.getFinalScore());
-                    scoreDetails.put("comment", score.getComment());
-
-                    // Add individual criterion scores
-                    Map<String, Object> criterionScores = new java.util.HashMap<>();
-                    for (ScoreCriterion sc : score.getScoreCriteria()) {
-                        criterionScores.put(sc.getCriterion().getName(), sc.getValue());
+            for (int j = 0; j < judges.size(); j++) {
+                if (row.getFinalScores()[j] == null) {
+                    judgeScores.put(judges.get(j).getName(), null); // Not scored yet
+                    continue;
+                }
+                Map<String, Object> scoreDetails = new java.util.HashMap<>();
+                scoreDetails.put("finalScore", row.getFinalScores()[j]);
+                scoreDetails.put("comment", row.getComments()[j]);
+                Map<String, Object> criterionScores = new java.util.HashMap<>();
+                for (int c = 0; c < criteria.size(); c++) {
+                    if (row.getCriterionValues()[j][c] != null) {
+                        criterionScores.put(criteria.get(c).getName(), row.getCriterionValues()[j][c]);
                     }
-                    scoreDetails.put("criteria", criterionScores);
-                    judgeScores.put(judge.getName(), scoreDetails);
-                } else {
-                    judgeScores.put(judge.getName(), null); // Not scored yet
                 }
+                scoreDetails.put("criteria", criterionScores);
+                judgeScores.put(judges.get(j).getName(), scoreDetails);
             }
             teamData.put("judgeScores", judgeScores);
-
-            // Calculate average score
-            List<Double> finalScores = judgeScores.values().stream()
-                    .filter(score -> score != null)
-                    .map(score -> (Double) ((Map<String, Object>) score).get("finalScore"))
-                    .collect(Collectors.toList());
-            double average = finalScores.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            teamData.put("averageScore", average);
-            teamData.put("scoresCount", finalScores.size());
-
+            teamData.put("averageScore", row.getAverageScore());
+            teamData.put("scoresCount", row.getScoresCount());
             return teamData;
-        }).sorted((a, b) -> Double.compare((Double) b.get("averageScore"), (Double) a.get("averageScore")))
-                .collect(Collectors.toList());
+        }).collect(Collectors.toList());
 
         return Map.of(
                 "teams", teamScores,
                 "judges", judges,
                 "criteria", criteria,
-                "event", event
+                "event", matrix.getEvent()
         );
     }
 
     @GetMapping("/events/{eventId}/export")
-    public ResponseEntity<String> exportLeaderboard(@PathVariable Long eventId) {
-        List<Map<String, Object>> leaderboard = getLeaderboard(eventId);
-        StringBuilder csv = new StringBuilder("Team Name,Average Score\n");
-        for (Map<String, Object> entry : leaderboard) {
-            Team team = (Team) entry.get("team");
-            double score = (Double) entry.get("averageScore");
-            csv.append(team.getTeamName()).append(",").append(score).append("\n");
-        }
+    public ResponseEntity<StreamingResponseBody> exportLeaderboard(@PathVariable Long eventId,
+                                                                   @RequestParam(defaultValue = "csv") String format) {
+        eventRepository.findSummaryById(eventId).orElseThrow();
+        ScoreExportService.Format exportFormat = ScoreExportService.Format.valueOf(format.toUpperCase());
+        boolean csv = exportFormat == ScoreExportService.Format.CSV;
+        EventSnapshot archived = eventArchiveService.snapshot(eventId).orElse(null);
+        StreamingResponseBody body = archived != null
+                ? out -> scoreExportService.export(archived.matrix(), archived.leaderboard(null), exportFormat, out)
+                : out -> scoreExportService.export(eventId, exportFormat, out);
         return ResponseEntity.ok()
-                .header("Content-Type", "text/csv")
-                .header("Content-Disposition", "attachment; filename=leaderboard.csv")
-                .body(csv.toString());
+                .header("Content-Type", csv ? "text/csv" : "application/x-ndjson")
+                .header("Content-Disposition", "attachment; filename=leaderboard." + (csv ? "csv" : "ndjson"))
+                .body(body);
     }
 
     @PostMapping("/events/{eventId}/teams/upload")
-    public ResponseEntity<String> uploadTeams(@PathVariable Long eventId, @RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadTeams(@PathVariable Long eventId, @RequestParam("file") MultipartFile file,
+                                         @RequestParam(defaultValue = "UTF-8") String charset) {
+        eventArchiveService.requireLive(eventId);
         try {
-            Event event = eventRepository.findById(eventId).orElseThrow();
-            String content = new String(file.getBytes());
-            String[] lines = content.split("\\r?\\n");
-            int count = 0;
-            for (int i = 1; i < lines.length; i++) { // skip header
-                String line = lines[i].trim();
-                if (line.isEmpty()) continue;
-                String[] parts = line.split(",");
-                if (parts.length >= 3) {
-                    Team team = new Team();
-                    team.setTeamName(parts[0].trim());
-                    team.setTeamNumber(Integer.parseInt(parts[1].trim()));
-                    team.setDescription(parts[2].trim());
-                    team.setEvent(event);
-                    teamRepository.save(team);
-                    count++;
-                }
+            eventRepository.findSummaryById(eventId).orElseThrow();
+            TeamImportReport report;
+            try (InputStream input = file.getInputStream()) {
+                report = teamImportService.importTeams(eventId, input, Charset.forName(charset));
+            }
+            if (report.getImported() > 0) {
+                eventVersionService.bump(eventId);
+                leaderboardService.evict(eventId);
+                liveUpdateService.publish(eventId, LiveUpdateService.TEAMS_IMPORTED, Map.of("count", report.getImported()));
             }
-            return ResponseEntity.ok(count + " teams uploaded successfully");
+            return ResponseEntity.ok(report);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error uploading teams: " + e.getMessage());
         }
     }
+
+    @GetMapping(value = "/events/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUpdates(@PathVariable Long eventId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        eventRepository.findSummaryById(eventId).orElseThrow();
+        return liveUpdateService.subscribe(eventId, lastEventId);
+    }
+
+    @GetMapping("/cache-stats")
+    public Map<String, CacheStatistics> getCacheStats() {
+        return Map.of(
+                "principals", principalCache.statistics(),
+                "tokens", jwtUtil.statistics()
+        );
+    }
+
+    // checkNotModified has already set the status and the ETag
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+
+    // Archived events are read from their snapshot, which the database may no longer back
+    private ScoreMatrix scoreMatrix(Long eventId) {
+        return eventArchiveService.snapshot(eventId).map(EventSnapshot::matrix)
+                .orElseGet(() -> scoreMatrixService.build(eventId));
+    }
+
+    private static TeamSummary toSummary(Team team) {
+        return new TeamSummary(team.getId(), team.getTeamName(), team.getTeamNumber(), team.getDescription());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.judgingsystem.dto;
+
+/**
+ * One aggregate row: running totals of criterion values for a team or a judge.
+ */
+public record AggregateRow(Long ownerId, Long criterionId, long count, double sum, double sumSquares) {
+}
@@ -0,0 +1,9 @@
+package com.example.judgingsystem.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BatchScoreRequest {
+    private List<ScoreSubmission> submissions;
+}
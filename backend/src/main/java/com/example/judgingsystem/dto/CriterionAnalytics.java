@@ -0,0 +1,56 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Per-criterion statistics of an event: event-wide, per team and per judge. Each list
+ * of {@link CriterionStats} follows the order of the event's criteria.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CriterionAnalytics {
+    private EventSummary event;
+    private List<CriterionStats> criteria;
+    private List<TeamStats> teams;
+    private List<JudgeStats> judges;
+
+    /**
+     * Mean and population standard deviation of the values given for one criterion;
+     * both are null when nothing has been scored yet.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CriterionStats {
+        private Long criterionId;
+        private String criterionName;
+        private long count;
+        private Double mean;
+        private Double standardDeviation;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TeamStats {
+        private TeamSummary team;
+        private List<CriterionStats> criteria;
+    }
+
+    /**
+     * {@code severity} is the judge's mean minus the event mean, averaged over the
+     * criteria the judge has scored: negative for judges stricter than the panel.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JudgeStats {
+        private JudgeSummary judge;
+        private List<CriterionStats> criteria;
+        private Double severity;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CriterionSummary {
+    private Long id;
+    private String name;
+    private double weight;
+}
@@ -0,0 +1,17 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventOverview {
+    private Long id;
+    private String name;
+    private LocalDate date;
+    private long teamCount;
+    private long judgeCount;
+}
@@ -0,0 +1,7 @@
+package com.example.judgingsystem.dto;
+
+/**
+ * A score already stored for a judge, as needed to classify resubmissions.
+ */
+public record JudgeScoreRow(Long scoreId, Long judgeId, Long teamId, String submissionId, double finalScore) {
+}
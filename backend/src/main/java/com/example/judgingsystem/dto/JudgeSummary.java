@@ -0,0 +1,14 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeSummary {
+    private Long id;
+    private String name;
+    private String email;
+}
@@ -0,0 +1,20 @@
+package com.example.judgingsystem.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query parameters shared by the paginated list endpoints: {@code after} is the
+ * cursor of the previous page, {@code q} a case-insensitive search on the name,
+ * {@code sort} either {@code id} or {@code name}, and {@code all=true} returns the
+ * whole list as a plain array like before pagination.
+ */
+@Data
+@NoArgsConstructor
+public class ListRequest {
+    private String after;
+    private Integer limit;
+    private String q;
+    private String sort = "id";
+    private boolean all;
+}
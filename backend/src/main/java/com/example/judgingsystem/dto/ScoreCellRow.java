@@ -0,0 +1,9 @@
+package com.example.judgingsystem.dto;
+
+/**
+ * One score joined with one of its criterion values. Scores without criterion values
+ * appear once with a null criterion id.
+ */
+public record ScoreCellRow(Long scoreId, Long teamId, Long judgeId, double finalScore, String comment,
+                           Long criterionId, Integer value) {
+}
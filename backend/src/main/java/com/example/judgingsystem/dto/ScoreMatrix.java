@@ -0,0 +1,33 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Team x judge x criterion scores for one event. Each row's arrays are indexed by the
+ * position of the judge in {@code judges} and of the criterion in {@code criteria};
+ * a null entry means the judge has not scored that team yet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreMatrix {
+    private EventSummary event;
+    private List<JudgeSummary> judges;
+    private List<CriterionSummary> criteria;
+    private List<Row> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private TeamSummary team;
+        private double averageScore;
+        private int scoresCount;
+        private Double[] finalScores;
+        private String[] comments;
+        private Integer[][] criterionValues;
+    }
+}
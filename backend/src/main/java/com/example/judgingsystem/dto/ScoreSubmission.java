@@ -0,0 +1,13 @@
+package com.example.judgingsystem.dto;
+
+import lombok.Data;
+import java.util.Map;
+
+@Data
+public class ScoreSubmission {
+    private String submissionId;
+    private Long teamId;
+    private String comment;
+    // Criterion name -> value, as in the body of a single score submission
+    private Map<String, Object> scores;
+}
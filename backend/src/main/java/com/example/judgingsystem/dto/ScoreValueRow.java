@@ -0,0 +1,7 @@
+package com.example.judgingsystem.dto;
+
+/**
+ * The value a score gives one criterion, by criterion name.
+ */
+public record ScoreValueRow(Long scoreId, String criterion, int value) {
+}
@@ -0,0 +1,8 @@
+package com.example.judgingsystem.dto;
+
+/**
+ * One of a judge's scores with the team it was given to.
+ */
+public record ScoredTeamRow(Long scoreId, Long teamId, String teamName, int teamNumber, String description,
+                            double finalScore, String comment) {
+}
@@ -0,0 +1,30 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SubmissionResult {
+    public enum Status {
+        // Stored by this request
+        CREATED,
+        // Stored earlier under the same submission id; safe to treat as success
+        DUPLICATE,
+        // The team already has a score from this judge under another submission id
+        ALREADY_SCORED,
+        // Invalid and not stored
+        REJECTED,
+        // Accepted by the ingestion queue and not written yet
+        QUEUED,
+        // The ingestion queue could not write it; submit it again under the same submission id
+        FAILED
+    }
+
+    private String submissionId;
+    private Long teamId;
+    private Status status;
+    private Long scoreId;
+    private Double finalScore;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TeamImportReport {
+    private int imported;
+    private int rejected;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void reject(long line, String message) {
+        rejected++;
+        errors.add(new RowError(line, message));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.judgingsystem.dto;
+
+/**
+ * One committed score reduced to what the leaderboard needs to aggregate it.
+ */
+public record TeamScoreRow(Long scoreId, Long teamId, Long judgeId, double finalScore) {
+}
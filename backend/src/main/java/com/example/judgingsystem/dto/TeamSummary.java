@@ -0,0 +1,15 @@
+package com.example.judgingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamSummary {
+    private Long id;
+    private String teamName;
+    private int teamNumber;
+    private String description;
+}
@@ -0,0 +1,28 @@
+package com.example.judgingsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Running count, sum and sum of squares of the values one team received for one
+ * criterion, kept in step with the score_criterion rows so analytics never scan them.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_criterion_aggregate_event", columnList = "event_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_criterion_aggregate_team_criterion",
+                columnNames = {"team_id", "criterion_id"}))
+public class CriterionAggregate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne
+    private Event event;
+    @ManyToOne
+    private Team team;
+    @ManyToOne
+    private Criterion criterion;
+    private long scoreCount;
+    private double valueSum;
+    private double valueSumSquares;
+}
@@ -14,6 +14,12 @@ public class Event {
     private Long id;
     private String name;
     private LocalDate date;
+    // How judges' scores are normalized before teams are ranked; null on rows created before this column existed
+    @Enumerated(EnumType.STRING)
+    private NormalizationMethod normalization = NormalizationMethod.NONE;
+    // Set once scores are frozen into a snapshot file and served from there; null on rows created before this column existed
+    @JsonIgnore
+    private Boolean archived;
     @ManyToOne
     private User organizer;
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL)
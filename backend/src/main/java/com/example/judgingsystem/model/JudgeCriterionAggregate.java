@@ -0,0 +1,28 @@
+package com.example.judgingsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Running count, sum and sum of squares of the values one judge gave for one criterion
+ * within an event, used to compare how strictly judges score.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_judge_criterion_aggregate_event", columnList = "event_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_judge_criterion_aggregate",
+                columnNames = {"event_id", "judge_id", "criterion_id"}))
+public class JudgeCriterionAggregate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne
+    private Event event;
+    @ManyToOne
+    private User judge;
+    @ManyToOne
+    private Criterion criterion;
+    private long scoreCount;
+    private double valueSum;
+    private double valueSumSquares;
+}
@@ -0,0 +1,14 @@
+package com.example.judgingsystem.model;
+
+/**
+ * How each judge's scores are rescaled before they are averaged per team, so that a
+ * team is not penalized for drawing strict judges.
+ */
+public enum NormalizationMethod {
+    // Raw final scores
+    NONE,
+    // Distance from the judge's own mean in units of the judge's standard deviation
+    Z_SCORE,
+    // Position among the judge's scores, 0 for the judge's lowest and 1 for the highest
+    RANK_PERCENTILE
+}
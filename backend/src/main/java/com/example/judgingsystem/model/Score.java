@@ -7,6 +7,14 @@ import java.util.List;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_score_team_judge", columnList = "team_id, judge_id"),
+        @Index(name = "idx_score_judge_id", columnList = "judge_id, id")
+},
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_score_judge_team", columnNames = {"judge_id", "team_id"}),
+                @UniqueConstraint(name = "uk_score_judge_submission", columnNames = {"judge_id", "submission_id"})
+        })
 public class Score {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +25,8 @@ public class Score {
     private Team team;
     private double finalScore;
     private String comment;
+    // Client-supplied id that makes retried batch submissions idempotent
+    private String submissionId;
     @OneToMany(mappedBy = "score", cascade = CascadeType.ALL)
     private List<ScoreCriterion> scoreCriteria = new ArrayList<>();
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_score_criterion_score", columnList = "score_id"))
 public class ScoreCriterion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
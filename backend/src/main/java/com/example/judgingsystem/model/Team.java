@@ -5,6 +5,10 @@ import lombok.Data;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_team_event_id", columnList = "event_id, id"),
+        @Index(name = "idx_team_event_name", columnList = "event_id, team_name, id")
+})
 public class Team {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
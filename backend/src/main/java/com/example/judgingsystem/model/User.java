@@ -7,6 +7,11 @@ import java.util.List;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_user_role_event_id", columnList = "role, event_id, id"),
+        @Index(name = "idx_user_role_id", columnList = "role, id"),
+        @Index(name = "idx_user_role_name", columnList = "role, name, id")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
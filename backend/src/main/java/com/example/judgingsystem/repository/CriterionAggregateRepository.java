@@ -0,0 +1,25 @@
+package com.example.judgingsystem.repository;
+
+import com.example.judgingsystem.dto.AggregateRow;
+import com.example.judgingsystem.model.CriterionAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface CriterionAggregateRepository extends JpaRepository<CriterionAggregate, Long> {
+
+    @Query("select new com.example.judgingsystem.dto.AggregateRow(a.team.id, a.criterion.id, a.scoreCount, " +
+            "a.valueSum, a.valueSumSquares) from CriterionAggregate a where a.event.id = :eventId")
+    List<AggregateRow> findRowsByEventId(Long eventId);
+
+    @Query("select e.id from Event e where exists (select 1 from Score s where s.team.event = e) " +
+            "and not exists (select 1 from CriterionAggregate a where a.event = e)")
+    List<Long> findEventIdsWithoutAggregates();
+
+    @Modifying
+    @Query("delete from CriterionAggregate a where a.event.id = :eventId")
+    int deleteByEventId(Long eventId);
+}
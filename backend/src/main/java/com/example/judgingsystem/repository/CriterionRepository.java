@@ -1,12 +1,23 @@
 package com.example.judgingsystem.repository;
 
+import com.example.judgingsystem.dto.CriterionSummary;
 import com.example.judgingsystem.model.Criterion;
 import com.example.judgingsystem.model.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface CriterionRepository extends JpaRepository<Criterion, Long> {
     List<Criterion> findByEvent(Event event);
+
+    @Query("select new com.example.judgingsystem.dto.CriterionSummary(c.id, c.name, c.weight) " +
+            "from Criterion c where c.event.id = :eventId order by c.id")
+    List<CriterionSummary> findSummariesByEventId(Long eventId);
+
+    @Modifying
+    @Query("delete from Criterion c where c.event.id = :eventId")
+    int deleteByEventId(Long eventId);
 }
\ No newline at end of file
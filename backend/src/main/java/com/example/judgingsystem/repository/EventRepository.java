@@ -1,12 +1,48 @@
 package com.example.judgingsystem.repository;
 
+import com.example.judgingsystem.dto.EventOverview;
+import com.example.judgingsystem.dto.EventSummary;
 import com.example.judgingsystem.model.Event;
+import com.example.judgingsystem.model.NormalizationMethod;
 import com.example.judgingsystem.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByOrganizer(User organizer);
+    List<Event> findByOrganizerId(Long organizerId);
+
+    @Query("select new com.example.judgingsystem.dto.EventOverview(e.id, e.name, e.date, " +
+            "(select count(t) from Team t where t.event = e), " +
+            "(select count(u) from User u where u.event = e and u.role = com.example.judgingsystem.model.Role.JUDGE)) " +
+            "from Event e where e.organizer.id = :organizerId")
+    List<EventOverview> findOverviewsByOrganizerId(Long organizerId);
+
+    @Query("select new com.example.judgingsystem.dto.EventSummary(e.id, e.name, e.date) from Event e where e.id = :eventId")
+    Optional<EventSummary> findSummaryById(Long eventId);
+
+    @Query("select e.normalization from Event e where e.id = :eventId")
+    Optional<NormalizationMethod> findNormalizationById(Long eventId);
+
+    @Query("select e.organizer.id from Event e where e.id = :eventId")
+    Optional<Long> findOrganizerIdById(Long eventId);
+
+    @Query("select e.id from Event e where e.archived = true")
+    List<Long> findArchivedIds();
+
+    @Query("select e.id from Event e where e.archived is null or e.archived = false")
+    List<Long> findLiveIds();
+
+    @Modifying
+    @Query("update Event e set e.archived = true where e.id = :eventId")
+    int markArchived(Long eventId);
+
+    @Modifying
+    @Query("delete from Event e where e.id = :eventId")
+    int deleteByIdInBulk(Long eventId);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.judgingsystem.repository;
+
+import com.example.judgingsystem.dto.AggregateRow;
+import com.example.judgingsystem.model.JudgeCriterionAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface JudgeCriterionAggregateRepository extends JpaRepository<JudgeCriterionAggregate, Long> {
+
+    @Query("select new com.example.judgingsystem.dto.AggregateRow(a.judge.id, a.criterion.id, a.scoreCount, " +
+            "a.valueSum, a.valueSumSquares) from JudgeCriterionAggregate a where a.event.id = :eventId")
+    List<AggregateRow> findRowsByEventId(Long eventId);
+
+    @Modifying
+    @Query("delete from JudgeCriterionAggregate a where a.event.id = :eventId")
+    int deleteByEventId(Long eventId);
+}
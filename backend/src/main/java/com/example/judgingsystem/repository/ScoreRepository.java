@@ -1,14 +1,84 @@
 package com.example.judgingsystem.repository;
 
+import com.example.judgingsystem.dto.JudgeScoreRow;
+import com.example.judgingsystem.dto.ScoreCellRow;
+import com.example.judgingsystem.dto.ScoreValueRow;
+import com.example.judgingsystem.dto.ScoredTeamRow;
+import com.example.judgingsystem.dto.TeamScoreRow;
 import com.example.judgingsystem.model.Score;
 import com.example.judgingsystem.model.Team;
 import com.example.judgingsystem.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ScoreRepository extends JpaRepository<Score, Long> {
     List<Score> findByTeam(Team team);
     List<Score> findByJudge(User judge);
+    boolean existsByJudgeIdAndTeamId(Long judgeId, Long teamId);
+
+    // Fetches each score's criterion values with it instead of one query per score
+    @Query("select distinct s from Score s join fetch s.team left join fetch s.scoreCriteria sc " +
+            "left join fetch sc.criterion where s.judge.id = :judgeId")
+    List<Score> findWithCriteriaByJudgeId(Long judgeId);
+
+    // Keyset pages of a judge's scores; criterion values are read for the page afterwards,
+    // since a limit on a collection fetch join would be applied in memory
+    @Query("select new com.example.judgingsystem.dto.ScoredTeamRow(s.id, t.id, t.teamName, t.teamNumber, " +
+            "t.description, s.finalScore, s.comment) from Score s join s.team t " +
+            "where s.judge.id = :judgeId and s.id > :afterId " +
+            "and (:pattern = '%' or lower(t.teamName) like :pattern escape '\\') order by s.id")
+    List<ScoredTeamRow> findScoredTeamPageByJudgeId(Long judgeId, long afterId, String pattern, Limit limit);
+
+    @Query("select new com.example.judgingsystem.dto.ScoredTeamRow(s.id, t.id, t.teamName, t.teamNumber, " +
+            "t.description, s.finalScore, s.comment) from Score s join s.team t " +
+            "where s.judge.id = :judgeId " +
+            "and (t.teamName > :afterName or (t.teamName = :afterName and s.id > :afterId)) " +
+            "and (:pattern = '%' or lower(t.teamName) like :pattern escape '\\') order by t.teamName, s.id")
+    List<ScoredTeamRow> findScoredTeamPageByJudgeIdOrderByName(Long judgeId, String afterName, long afterId,
+                                                               String pattern, Limit limit);
+
+    // Scores of teams without a name, which follow the named ones when sorting by name
+    @Query("select new com.example.judgingsystem.dto.ScoredTeamRow(s.id, t.id, t.teamName, t.teamNumber, " +
+            "t.description, s.finalScore, s.comment) from Score s join s.team t " +
+            "where s.judge.id = :judgeId and t.teamName is null and s.id > :afterId order by s.id")
+    List<ScoredTeamRow> findUnnamedScoredTeamPageByJudgeId(Long judgeId, long afterId, Limit limit);
+
+    @Query("select new com.example.judgingsystem.dto.ScoreValueRow(sc.score.id, c.name, sc.value) " +
+            "from ScoreCriterion sc join sc.criterion c where sc.score.id in :scoreIds")
+    List<ScoreValueRow> findValuesByScoreIds(Collection<Long> scoreIds);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeScoreRow(s.id, s.judge.id, s.team.id, s.submissionId, " +
+            "s.finalScore) from Score s where s.judge.id in :judgeIds")
+    List<JudgeScoreRow> findJudgeScoreRowsByJudgeIds(Collection<Long> judgeIds);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeScoreRow(s.id, s.judge.id, s.team.id, s.submissionId, " +
+            "s.finalScore) from Score s where s.judge.id = :judgeId and s.submissionId = :submissionId")
+    Optional<JudgeScoreRow> findJudgeScoreRowBySubmissionId(Long judgeId, String submissionId);
+
+    @Query("select s.team.id from Score s where s.judge.id = :judgeId")
+    List<Long> findTeamIdsByJudgeId(Long judgeId);
+
+    @Query("select new com.example.judgingsystem.dto.TeamScoreRow(s.id, s.team.id, s.judge.id, s.finalScore) " +
+            "from Score s where s.team.event.id = :eventId")
+    List<TeamScoreRow> findTeamScoreRowsByEventId(Long eventId);
+
+    @Query("select new com.example.judgingsystem.dto.ScoreCellRow(s.id, s.team.id, s.judge.id, s.finalScore, s.comment, " +
+            "sc.criterion.id, sc.value) from Score s left join s.scoreCriteria sc where s.team.event.id = :eventId")
+    List<ScoreCellRow> findScoreCellsByEventId(Long eventId);
+
+    @Modifying
+    @Query("delete from ScoreCriterion sc where sc.score.id in " +
+            "(select s.id from Score s where s.team.id in (select t.id from Team t where t.event.id = :eventId))")
+    int deleteCriteriaByEventId(Long eventId);
+
+    @Modifying
+    @Query("delete from Score s where s.team.id in (select t.id from Team t where t.event.id = :eventId)")
+    int deleteByEventId(Long eventId);
 }
\ No newline at end of file
@@ -1,12 +1,69 @@
 package com.example.judgingsystem.repository;
 
+import com.example.judgingsystem.dto.TeamSummary;
 import com.example.judgingsystem.model.Event;
 import com.example.judgingsystem.model.Team;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByEvent(Event event);
-}
\ No newline at end of file
+
+    @Query("select t.id from Team t where t.event.id = :eventId")
+    List<Long> findIdsByEventId(Long eventId);
+
+    @Query("select new com.example.judgingsystem.dto.TeamSummary(t.id, t.teamName, t.teamNumber, t.description) " +
+            "from Team t where t.event.id = :eventId and not exists " +
+            "(select 1 from Score s where s.team = t and s.judge.id = :judgeId)")
+    List<TeamSummary> findUnscoredSummariesByEventIdAndJudgeId(Long eventId, Long judgeId);
+
+    boolean existsByEventIdAndTeamNameAndDescription(Long eventId, String teamName, String description);
+
+    @Query("select new com.example.judgingsystem.dto.TeamSummary(t.id, t.teamName, t.teamNumber, t.description) " +
+            "from Team t where t.event.id = :eventId")
+    List<TeamSummary> findSummariesByEventId(Long eventId);
+
+    // Keyset pages: rows after the cursor, read in index order instead of skipping an offset
+    @Query("select new com.example.judgingsystem.dto.TeamSummary(t.id, t.teamName, t.teamNumber, t.description) " +
+            "from Team t where t.event.id = :eventId and t.id > :afterId " +
+            "and (:pattern = '%' or lower(t.teamName) like :pattern escape '\\') order by t.id")
+    List<TeamSummary> findSummaryPageByEventId(Long eventId, long afterId, String pattern, Limit limit);
+
+    @Query("select new com.example.judgingsystem.dto.TeamSummary(t.id, t.teamName, t.teamNumber, t.description) " +
+            "from Team t where t.event.id = :eventId " +
+            "and (t.teamName > :afterName or (t.teamName = :afterName and t.id > :afterId)) " +
+            "and (:pattern = '%' or lower(t.teamName) like :pattern escape '\\') order by t.teamName, t.id")
+    List<TeamSummary> findSummaryPageByEventIdOrderByName(Long eventId, String afterName, long afterId, String pattern,
+                                                          Limit limit);
+
+    // Teams without a name, which follow the named ones when sorting by name
+    @Query("select new com.example.judgingsystem.dto.TeamSummary(t.id, t.teamName, t.teamNumber, t.description) " +
+            "from Team t where t.event.id = :eventId and t.teamName is null and t.id > :afterId order by t.id")
+    List<TeamSummary> findUnnamedSummaryPageByEventId(Long eventId, long afterId, Limit limit);
+
+    // Row locks serialize writers of a team's criterion aggregates
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Team t where t.id = :teamId")
+    Optional<Team> findByIdForUpdate(Long teamId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Team t where t.id in :teamIds order by t.id")
+    List<Team> lockAllById(Collection<Long> teamIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Team t where t.event.id = :eventId order by t.id")
+    List<Team> lockAllByEventId(Long eventId);
+
+    @Modifying
+    @Query("delete from Team t where t.event.id = :eventId")
+    int deleteByEventId(Long eventId);
+}
@@ -1,9 +1,16 @@
 package com.example.judgingsystem.repository;
 
+import com.example.judgingsystem.dto.JudgeSummary;
 import com.example.judgingsystem.model.Role;
 import com.example.judgingsystem.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +18,71 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(Role role);
+    List<User> findByRoleAndEventId(Role role, Long eventId);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE and u.event.id = :eventId")
+    List<JudgeSummary> findJudgeSummariesByEventId(Long eventId);
+
+    // Judges assigned to the event and judges with scores in it; an archived event has only the latter
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) from User u " +
+            "where (u.role = com.example.judgingsystem.model.Role.JUDGE and u.event.id = :eventId) " +
+            "or u.id in (select a.judge.id from JudgeCriterionAggregate a where a.event.id = :eventId)")
+    List<JudgeSummary> findScoringJudgeSummariesByEventId(Long eventId);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE")
+    List<JudgeSummary> findAllJudgeSummaries();
+
+    // Keyset pages of judges
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE and u.event.id = :eventId " +
+            "and u.id > :afterId and (:pattern = '%' or lower(u.name) like :pattern escape '\\') order by u.id")
+    List<JudgeSummary> findJudgeSummaryPageByEventId(Long eventId, long afterId, String pattern, Limit limit);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE and u.event.id = :eventId " +
+            "and (u.name > :afterName or (u.name = :afterName and u.id > :afterId)) " +
+            "and (:pattern = '%' or lower(u.name) like :pattern escape '\\') order by u.name, u.id")
+    List<JudgeSummary> findJudgeSummaryPageByEventIdOrderByName(Long eventId, String afterName, long afterId,
+                                                                String pattern, Limit limit);
+
+    // Judges without a name, which follow the named ones when sorting by name
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE and u.event.id = :eventId " +
+            "and u.name is null and u.id > :afterId order by u.id")
+    List<JudgeSummary> findUnnamedJudgeSummaryPageByEventId(Long eventId, long afterId, Limit limit);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE " +
+            "and u.name is not null and u.email is not null and u.id > :afterId " +
+            "and (:pattern = '%' or lower(u.name) like :pattern escape '\\') order by u.id")
+    List<JudgeSummary> findJudgeSummaryPage(long afterId, String pattern, Limit limit);
+
+    @Query("select new com.example.judgingsystem.dto.JudgeSummary(u.id, u.name, u.email) " +
+            "from User u where u.role = com.example.judgingsystem.model.Role.JUDGE " +
+            "and u.name is not null and u.email is not null " +
+            "and (u.name > :afterName or (u.name = :afterName and u.id > :afterId)) " +
+            "and (:pattern = '%' or lower(u.name) like :pattern escape '\\') order by u.name, u.id")
+    List<JudgeSummary> findJudgeSummaryPageOrderByName(String afterName, long afterId, String pattern, Limit limit);
+
+    // Row lock serializes writers of a judge's criterion aggregates
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :userId")
+    Optional<User> findByIdForUpdate(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id in :userIds order by u.id")
+    List<User> lockAllById(Collection<Long> userIds);
+
+    @Query("select u.id from User u where u.event.id = :eventId")
+    List<Long> findIdsByEventId(Long eventId);
+
+    @Modifying
+    @Query("update User u set u.event = null where u.event.id = :eventId")
+    int clearEvent(Long eventId);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePassword(String email, String password);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.judgingsystem.service;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import java.util.List;
+
+/**
+ * Spring Security's view of a user that keeps the {@link UserPrincipal} it was built
+ * from, so code holding an authentication never has to look the user up again.
+ */
+public class AuthenticatedUser extends User {
+
+    private final UserPrincipal principal;
+
+    public AuthenticatedUser(UserPrincipal principal) {
+        super(principal.email(), principal.password(), List.of(new SimpleGrantedAuthority(
+                "ROLE_" + (principal.role() != null ? principal.role().toString() : "ORGANIZER"))));
+        this.principal = principal;
+    }
+
+    public UserPrincipal getPrincipal() {
+        return principal;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.AggregateRow;
+import com.example.judgingsystem.dto.CriterionAnalytics;
+import com.example.judgingsystem.dto.CriterionAnalytics.CriterionStats;
+import com.example.judgingsystem.dto.CriterionAnalytics.JudgeStats;
+import com.example.judgingsystem.dto.CriterionAnalytics.TeamStats;
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.EventSummary;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.repository.CriterionAggregateRepository;
+import com.example.judgingsystem.repository.CriterionRepository;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.JudgeCriterionAggregateRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains count, sum and sum of squares of criterion values per (team, criterion)
+ * and per (judge, criterion) for every event, and answers analytics from those rows
+ * alone. Writers hold the judge's and the teams' row locks (in that order, teams by
+ * ascending id), which makes the update-or-insert of each aggregate row safe.
+ */
+@Service
+public class CriterionAggregateService {
+
+    private static final String TEAM_TABLE = "criterion_aggregate";
+    private static final String JUDGE_TABLE = "judge_criterion_aggregate";
+
+    private static final String UPDATE = "update %s set score_count = score_count + ?, value_sum = value_sum + ?, "
+            + "value_sum_squares = value_sum_squares + ? where event_id = ? and %s = ? and criterion_id = ?";
+    private static final String INSERT = "insert into %s (event_id, %s, criterion_id, score_count, value_sum, "
+            + "value_sum_squares) values (?, ?, ?, ?, ?, ?)";
+    private static final String REBUILD = """
+            insert into %1$s (event_id, %2$s, criterion_id, score_count, value_sum, value_sum_squares)
+            select t.event_id, s.%2$s, sc.criterion_id, count(*), sum(sc.value), sum(cast(sc.value as double precision) * sc.value)
+            from score s
+            join team t on t.id = s.team_id
+            join score_criterion sc on sc.score_id = s.id
+            where t.event_id = ?
+            group by t.event_id, s.%2$s, sc.criterion_id
+            """;
+
+    @Autowired
+    private CriterionAggregateRepository criterionAggregateRepository;
+
+    @Autowired
+    private JudgeCriterionAggregateRepository judgeCriterionAggregateRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CriterionRepository criterionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private record Key(long ownerId, long criterionId) {
+    }
+
+    private static class Totals {
+        long count;
+        double sum;
+        double sumSquares;
+
+        void add(int value) {
+            count++;
+            sum += value;
+            sumSquares += (double) value * value;
+        }
+    }
+
+    /**
+     * Folds newly stored scores of one event into the aggregates. Runs in the caller's
+     * transaction, which must already hold the judge and team row locks.
+     */
+    public void record(Long eventId, List<ScoreWriter.NewScore> scores) {
+        Map<Key, Totals> byTeam = new LinkedHashMap<>();
+        Map<Key, Totals> byJudge = new LinkedHashMap<>();
+        for (ScoreWriter.NewScore score : scores) {
+            for (int c = 0; c < score.criterionIds().length; c++) {
+                long criterionId = score.criterionIds()[c];
+                byTeam.computeIfAbsent(new Key(score.teamId(), criterionId), k -> new Totals()).add(score.values()[c]);
+                byJudge.computeIfAbsent(new Key(score.judgeId(), criterionId), k -> new Totals()).add(score.values()[c]);
+            }
+        }
+        apply(TEAM_TABLE, "team_id", eventId, byTeam);
+        apply(JUDGE_TABLE, "judge_id", eventId, byJudge);
+    }
+
+    private void apply(String table, String ownerColumn, Long eventId, Map<Key, Totals> totals) {
+        if (totals.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Totals>> entries = new ArrayList<>(totals.entrySet());
+        List<Object[]> updates = new ArrayList<>(entries.size());
+        for (Map.Entry<Key, Totals> entry : entries) {
+            Totals t = entry.getValue();
+            updates.add(new Object[]{t.count, t.sum, t.sumSquares, eventId, entry.getKey().ownerId(),
+                    entry.getKey().criterionId()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(String.format(UPDATE, table, ownerColumn), updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                Key key = entries.get(i).getKey();
+                Totals t = entries.get(i).getValue();
+                inserts.add(new Object[]{eventId, key.ownerId(), key.criterionId(), t.count, t.sum, t.sumSquares});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(String.format(INSERT, table, ownerColumn), inserts);
+        }
+    }
+
+    /**
+     * Recomputes the event's aggregates from the raw score rows. Locks the event's teams
+     * for the duration, so submissions wait rather than being lost or counted twice.
+     */
+    public void rebuild(Long eventId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            teamRepository.lockAllByEventId(eventId);
+            criterionAggregateRepository.deleteByEventId(eventId);
+            judgeCriterionAggregateRepository.deleteByEventId(eventId);
+            jdbcTemplate.update(String.format(REBUILD, TEAM_TABLE, "team_id"), eventId);
+            jdbcTemplate.update(String.format(REBUILD, JUDGE_TABLE, "judge_id"), eventId);
+        });
+    }
+
+    /**
+     * Fills in events that have scores but no aggregates, e.g. scored before this table existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildMissing() {
+        criterionAggregateRepository.findEventIdsWithoutAggregates().forEach(this::rebuild);
+    }
+
+    @Transactional(readOnly = true)
+    public CriterionAnalytics analytics(Long eventId) {
+        EventSummary event = eventRepository.findSummaryById(eventId).orElseThrow();
+        List<CriterionSummary> criteria = criterionRepository.findSummariesByEventId(eventId);
+        Map<Key, AggregateRow> teamRows = byKey(criterionAggregateRepository.findRowsByEventId(eventId));
+        Map<Key, AggregateRow> judgeRows = byKey(judgeCriterionAggregateRepository.findRowsByEventId(eventId));
+
+        Map<Long, Totals> eventTotals = new HashMap<>();
+        for (AggregateRow row : teamRows.values()) {
+            Totals t = eventTotals.computeIfAbsent(row.criterionId(), id -> new Totals());
+            t.count += row.count();
+            t.sum += row.sum();
+            t.sumSquares += row.sumSquares();
+        }
+        List<CriterionStats> overall = new ArrayList<>(criteria.size());
+        for (CriterionSummary criterion : criteria) {
+            Totals t = eventTotals.get(criterion.getId());
+            overall.add(t == null ? stats(criterion, 0, 0.0, 0.0) : stats(criterion, t.count, t.sum, t.sumSquares));
+        }
+
+        List<TeamSummary> teamSummaries = teamRepository.findSummariesByEventId(eventId);
+        List<TeamStats> teams = new ArrayList<>(teamSummaries.size());
+        for (TeamSummary team : teamSummaries) {
+            teams.add(new TeamStats(team, statsOf(team.getId(), criteria, teamRows)));
+        }
+
+        List<JudgeSummary> judgeSummaries = userRepository.findScoringJudgeSummariesByEventId(eventId);
+        List<JudgeStats> judges = new ArrayList<>(judgeSummaries.size());
+        for (JudgeSummary judge : judgeSummaries) {
+            List<CriterionStats> judgeStats = statsOf(judge.getId(), criteria, judgeRows);
+            double deviation = 0.0;
+            int scored = 0;
+            for (int c = 0; c < criteria.size(); c++) {
+                if (judgeStats.get(c).getMean() != null) {
+                    deviation += judgeStats.get(c).getMean() - overall.get(c).getMean();
+                    scored++;
+                }
+            }
+            judges.add(new JudgeStats(judge, judgeStats, scored == 0 ? null : deviation / scored));
+        }
+        return new CriterionAnalytics(event, overall, teams, judges);
+    }
+
+    private static Map<Key, AggregateRow> byKey(List<AggregateRow> rows) {
+        Map<Key, AggregateRow> index = new HashMap<>(rows.size() * 2);
+        for (AggregateRow row : rows) {
+            index.put(new Key(row.ownerId(), row.criterionId()), row);
+        }
+        return index;
+    }
+
+    private static List<CriterionStats> statsOf(Long ownerId, List<CriterionSummary> criteria,
+                                                Map<Key, AggregateRow> rows) {
+        List<CriterionStats> result = new ArrayList<>(criteria.size());
+        for (CriterionSummary criterion : criteria) {
+            AggregateRow row = rows.get(new Key(ownerId, criterion.getId()));
+            result.add(row == null ? stats(criterion, 0, 0.0, 0.0)
+                    : stats(criterion, row.count(), row.sum(), row.sumSquares()));
+        }
+        return result;
+    }
+
+    private static CriterionStats stats(CriterionSummary criterion, long count, double sum, double sumSquares) {
+        if (count == 0) {
+            return new CriterionStats(criterion.getId(), criterion.getName(), 0, null, null);
+        }
+        double mean = sum / count;
+        // Rounding can push the variance of identical values slightly below zero
+        double variance = Math.max(0.0, sumSquares / count - mean * mean);
+        return new CriterionStats(criterion.getId(), criterion.getName(), count, mean, Math.sqrt(variance));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.ScoreMatrix;
+import com.example.judgingsystem.model.NormalizationMethod;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Freezes finished events. Archiving writes an event's score matrix and final ranking
+ * to a snapshot file in {@code archive.directory}, unassigns its judges and, when
+ * asked to, deletes its scores from the database. From then on the event's
+ * leaderboard, detailed scores, score matrix and export are read from the
+ * memory-mapped snapshot, and every write to the event is refused.
+ *
+ * Criterion analytics are left in the database: the aggregates are a few rows per
+ * criterion and judge, however many scores the event had.
+ */
+@Service
+public class EventArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventArchiveService.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ScoreMatrixService scoreMatrixService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${archive.directory:archive}")
+    private String directory;
+
+    // Holds an event from the moment archiving starts, so writers can be turned away before they lock anything
+    private final Set<Long> archived = ConcurrentHashMap.newKeySet();
+    private final Map<Long, EventSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Before the server takes requests, so no write slips into an archived event after a restart
+    @PostConstruct
+    public void openArchived() {
+        for (Long eventId : eventRepository.findArchivedIds()) {
+            archived.add(eventId);
+            try {
+                snapshots.put(eventId, EventSnapshot.open(fileOf(eventId)));
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Snapshot of archived event {} cannot be read; its reads fall back to the database", eventId, e);
+            }
+        }
+    }
+
+    public boolean isArchived(Long eventId) {
+        return eventId != null && archived.contains(eventId);
+    }
+
+    /**
+     * @throws ResponseStatusException with 409 when the event is archived
+     */
+    public void requireLive(Long eventId) {
+        if (isArchived(eventId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Event is archived");
+        }
+    }
+
+    public Optional<EventSnapshot> snapshot(Long eventId) {
+        return Optional.ofNullable(snapshots.get(eventId));
+    }
+
+    /**
+     * Archives the event and returns the size of its snapshot file. Scores being
+     * stored while this runs either commit before the snapshot is taken or are
+     * refused.
+     *
+     * @param purge also delete the event's scores and their criterion values
+     * @throws ResponseStatusException with 409 when the event is already archived
+     */
+    public long archive(Long eventId, boolean purge) throws IOException {
+        if (!archived.add(eventId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Event is already archived");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> freeze(eventId, purge));
+        } catch (RuntimeException e) {
+            // Rolled back: the event stays live and its snapshot must not be opened at the next start
+            archived.remove(eventId);
+            snapshots.remove(eventId);
+            deleteSnapshot(eventId);
+            if (e instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+        leaderboardService.evict(eventId);
+        return Files.size(fileOf(eventId));
+    }
+
+    /**
+     * Drops the snapshot of a deleted event.
+     */
+    public void forget(Long eventId) {
+        archived.remove(eventId);
+        if (snapshots.remove(eventId) != null) {
+            deleteSnapshot(eventId);
+        }
+    }
+
+    private void freeze(Long eventId, boolean purge) {
+        // Judges by id, then teams by id, the order score writers lock in; unassigning
+        // the judges below would otherwise wait on a writer that waits on a team lock
+        List<Long> judgeIds = userRepository.findIdsByEventId(eventId);
+        if (!judgeIds.isEmpty()) {
+            userRepository.lockAllById(judgeIds);
+        }
+        // Waits for score writes already holding a team lock; later ones see the event archived
+        teamRepository.lockAllByEventId(eventId);
+        leaderboardService.rebuild(eventId);
+        List<Map<String, Object>> leaderboard = leaderboardService.getLeaderboard(eventId, null);
+        ScoreMatrix matrix = scoreMatrixService.build(eventId);
+        String normalization = eventRepository.findNormalizationById(eventId).map(NormalizationMethod::name).orElse(null);
+
+        EventSnapshot snapshot;
+        try {
+            Path file = fileOf(eventId);
+            Files.createDirectories(file.getParent());
+            Path partial = file.resolveSibling(file.getFileName() + ".partial");
+            EventSnapshot.write(partial, matrix, normalization, leaderboard);
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            snapshot = EventSnapshot.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Published before commit so no read finds the event archived without its snapshot
+        snapshots.put(eventId, snapshot);
+
+        eventRepository.markArchived(eventId);
+        userRepository.clearEvent(eventId);
+        if (purge) {
+            scoreRepository.deleteCriteriaByEventId(eventId);
+            scoreRepository.deleteByEventId(eventId);
+        }
+    }
+
+    private void deleteSnapshot(Long eventId) {
+        Path file = fileOf(eventId);
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".partial"));
+        } catch (IOException e) {
+            log.warn("Snapshot of event {} could not be removed", eventId, e);
+        }
+    }
+
+    private Path fileOf(Long eventId) {
+        return Path.of(directory).toAbsolutePath().resolve("event-" + eventId + ".snapshot");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.repository.CriterionAggregateRepository;
+import com.example.judgingsystem.repository.CriterionRepository;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.JudgeCriterionAggregateRepository;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Deletes an event and everything hanging off it with a fixed number of bulk
+ * statements, children first, so the cost in round-trips does not grow with the
+ * number of teams or scores. Judges are kept and only lose their assignment.
+ */
+@Service
+public class EventDeletionService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private CriterionRepository criterionRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CriterionAggregateRepository criterionAggregateRepository;
+
+    @Autowired
+    private JudgeCriterionAggregateRepository judgeCriterionAggregateRepository;
+
+    @Transactional
+    public void delete(Long eventId) {
+        criterionAggregateRepository.deleteByEventId(eventId);
+        judgeCriterionAggregateRepository.deleteByEventId(eventId);
+        scoreRepository.deleteCriteriaByEventId(eventId);
+        scoreRepository.deleteByEventId(eventId);
+        userRepository.clearEvent(eventId);
+        teamRepository.deleteByEventId(eventId);
+        criterionRepository.deleteByEventId(eventId);
+        eventRepository.deleteByIdInBulk(eventId);
+    }
+}
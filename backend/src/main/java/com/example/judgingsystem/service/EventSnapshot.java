@@ -0,0 +1,370 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.EventSummary;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ScoreMatrix;
+import com.example.judgingsystem.dto.TeamSummary;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An archived event, read straight from its memory-mapped snapshot file. Nothing is
+ * decoded when a snapshot is opened; each read takes the numbers it needs from the
+ * mapped pages with absolute gets, and strings are decoded from the dictionary the
+ * first time they are asked for.
+ *
+ * The file is a fixed header followed by one column per field, all big-endian:
+ * <pre>
+ * header    magic, version, event id, date (epoch day), name, normalization,
+ *           team count T, judge count J, criterion count C, normalized flag
+ * teams     id long[T], average double[T], name int[T], number int[T],
+ *           description int[T], scores count int[T]  (detailed-scores order)
+ * judges    id long[J], name int[J], email int[J]
+ * criteria  id long[C], weight double[C], name int[C]
+ * cells     final score double[T*J] (NaN when unscored), comment int[T*J],
+ *           value int[T*J*C] (MIN_VALUE when missing); cell (t, j) is t * J + j
+ * board     team row int[T], average double[T], normalized double[T] in rank order
+ * strings   count, byte offsets int[count + 1], UTF-8 bytes
+ * </pre>
+ * Every string column holds a dictionary index, -1 for null.
+ */
+public final class EventSnapshot {
+
+    private static final int MAGIC = 0x4A534E50;
+    private static final int VERSION = 1;
+    private static final int HEADER = 48;
+    private static final int NULL_STRING = -1;
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    /**
+     * Byte offset of every column, derived from the three counts alone.
+     */
+    private static final class Layout {
+        final int teamId, teamAverage, teamName, teamNumber, teamDescription, teamScoresCount;
+        final int judgeId, judgeName, judgeEmail;
+        final int criterionId, criterionWeight, criterionName;
+        final int cellScore, cellComment, cellValue;
+        final int boardRow, boardAverage, boardNormalized;
+        final int strings;
+
+        Layout(int teams, int judges, int criteria) {
+            int cells = teams * judges;
+            int offset = HEADER;
+            // Eight-byte columns first so every long and double stays aligned
+            teamId = offset;
+            offset += 8 * teams;
+            teamAverage = offset;
+            offset += 8 * teams;
+            judgeId = offset;
+            offset += 8 * judges;
+            criterionId = offset;
+            offset += 8 * criteria;
+            criterionWeight = offset;
+            offset += 8 * criteria;
+            cellScore = offset;
+            offset += 8 * cells;
+            boardAverage = offset;
+            offset += 8 * teams;
+            boardNormalized = offset;
+            offset += 8 * teams;
+            teamName = offset;
+            offset += 4 * teams;
+            teamNumber = offset;
+            offset += 4 * teams;
+            teamDescription = offset;
+            offset += 4 * teams;
+            teamScoresCount = offset;
+            offset += 4 * teams;
+            judgeName = offset;
+            offset += 4 * judges;
+            judgeEmail = offset;
+            offset += 4 * judges;
+            criterionName = offset;
+            offset += 4 * criteria;
+            cellComment = offset;
+            offset += 4 * cells;
+            cellValue = offset;
+            offset += 4 * cells * criteria;
+            boardRow = offset;
+            offset += 4 * teams;
+            strings = offset;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int teams;
+    private final int judges;
+    private final int criteria;
+    private final Layout layout;
+    private final int stringCount;
+    private final int stringBytes;
+    // Decoded lazily; two threads decoding the same string just both store an equal value
+    private final String[] decoded;
+
+    private EventSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not an event snapshot of version " + VERSION);
+        }
+        this.buffer = buffer;
+        this.teams = buffer.getInt(32);
+        this.judges = buffer.getInt(36);
+        this.criteria = buffer.getInt(40);
+        this.layout = new Layout(teams, judges, criteria);
+        this.stringCount = buffer.getInt(layout.strings);
+        this.stringBytes = layout.strings + 4 + 4 * (stringCount + 1);
+        this.decoded = new String[stringCount];
+    }
+
+    /**
+     * Maps a snapshot file. The mapping outlives the channel and stays valid until the
+     * snapshot is garbage collected.
+     */
+    public static EventSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new EventSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Writes an event's score matrix and its ranking at the time of archiving to
+     * {@code file}, forcing it to disk before returning its size.
+     *
+     * @param leaderboard the event's full leaderboard, as {@link LeaderboardService} reports it
+     */
+    public static long write(Path file, ScoreMatrix matrix, String normalization,
+                             List<Map<String, Object>> leaderboard) throws IOException {
+        List<ScoreMatrix.Row> rows = matrix.getRows();
+        List<JudgeSummary> judgeList = matrix.getJudges();
+        List<CriterionSummary> criterionList = matrix.getCriteria();
+        int teams = rows.size();
+        int judges = judgeList.size();
+        int criteria = criterionList.size();
+        Layout layout = new Layout(teams, judges, criteria);
+        Dictionary dictionary = new Dictionary();
+        ByteBuffer columns = ByteBuffer.allocate(layout.strings);
+
+        EventSummary event = matrix.getEvent();
+        boolean normalized = leaderboard.stream().anyMatch(entry -> entry.containsKey("normalizedScore"));
+        columns.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putLong(8, event.getId())
+                .putLong(16, event.getDate() == null ? Long.MIN_VALUE : event.getDate().toEpochDay())
+                .putInt(24, dictionary.id(event.getName()))
+                .putInt(28, dictionary.id(normalization))
+                .putInt(32, teams)
+                .putInt(36, judges)
+                .putInt(40, criteria)
+                .putInt(44, normalized ? 1 : 0);
+
+        Map<Long, Integer> rowOfTeam = new HashMap<>();
+        for (int t = 0; t < teams; t++) {
+            ScoreMatrix.Row row = rows.get(t);
+            TeamSummary team = row.getTeam();
+            rowOfTeam.put(team.getId(), t);
+            columns.putLong(layout.teamId + 8 * t, team.getId())
+                    .putDouble(layout.teamAverage + 8 * t, row.getAverageScore())
+                    .putInt(layout.teamName + 4 * t, dictionary.id(team.getTeamName()))
+                    .putInt(layout.teamNumber + 4 * t, team.getTeamNumber())
+                    .putInt(layout.teamDescription + 4 * t, dictionary.id(team.getDescription()))
+                    .putInt(layout.teamScoresCount + 4 * t, row.getScoresCount());
+            for (int j = 0; j < judges; j++) {
+                int cell = t * judges + j;
+                Double score = row.getFinalScores()[j];
+                columns.putDouble(layout.cellScore + 8 * cell, score == null ? Double.NaN : score)
+                        .putInt(layout.cellComment + 4 * cell, dictionary.id(row.getComments()[j]));
+                Integer[] values = row.getCriterionValues()[j];
+                for (int c = 0; c < criteria; c++) {
+                    Integer value = values == null ? null : values[c];
+                    columns.putInt(layout.cellValue + 4 * (cell * criteria + c), value == null ? NO_VALUE : value);
+                }
+            }
+        }
+        for (int j = 0; j < judges; j++) {
+            JudgeSummary judge = judgeList.get(j);
+            columns.putLong(layout.judgeId + 8 * j, judge.getId())
+                    .putInt(layout.judgeName + 4 * j, dictionary.id(judge.getName()))
+                    .putInt(layout.judgeEmail + 4 * j, dictionary.id(judge.getEmail()));
+        }
+        for (int c = 0; c < criteria; c++) {
+            CriterionSummary criterion = criterionList.get(c);
+            columns.putLong(layout.criterionId + 8 * c, criterion.getId())
+                    .putDouble(layout.criterionWeight + 8 * c, criterion.getWeight())
+                    .putInt(layout.criterionName + 4 * c, dictionary.id(criterion.getName()));
+        }
+
+        // Teams added between the matrix and the leaderboard reads cannot be ranked here
+        int rank = 0;
+        for (Map<String, Object> entry : leaderboard) {
+            Integer row = rowOfTeam.get(((TeamSummary) entry.get("team")).getId());
+            if (row == null || rank == teams) {
+                continue;
+            }
+            Object normalizedScore = entry.get("normalizedScore");
+            columns.putInt(layout.boardRow + 4 * rank, row)
+                    .putDouble(layout.boardAverage + 8 * rank, ((Number) entry.get("averageScore")).doubleValue())
+                    .putDouble(layout.boardNormalized + 8 * rank,
+                            normalizedScore == null ? Double.NaN : ((Number) normalizedScore).doubleValue());
+            rank++;
+        }
+        for (; rank < teams; rank++) {
+            columns.putInt(layout.boardRow + 4 * rank, -1);
+        }
+
+        ByteBuffer strings = dictionary.encode();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (columns.hasRemaining() || strings.hasRemaining()) {
+                channel.write(new ByteBuffer[]{columns, strings});
+            }
+            channel.force(true);
+            return channel.size();
+        }
+    }
+
+    public long eventId() {
+        return buffer.getLong(8);
+    }
+
+    /**
+     * The event's ranking when it was archived, best first; the top {@code limit}
+     * teams, or all of them when limit is null.
+     */
+    public List<Map<String, Object>> leaderboard(Integer limit) {
+        boolean normalized = buffer.getInt(44) == 1;
+        int size = limit == null ? teams : Math.max(0, Math.min(limit, teams));
+        List<Map<String, Object>> result = new ArrayList<>(size);
+        for (int rank = 0; rank < size; rank++) {
+            int row = buffer.getInt(layout.boardRow + 4 * rank);
+            if (row < 0) {
+                break;
+            }
+            double average = buffer.getDouble(layout.boardAverage + 8 * rank);
+            if (!normalized) {
+                result.add(Map.of("team", team(row), "averageScore", average));
+                continue;
+            }
+            double score = buffer.getDouble(layout.boardNormalized + 8 * rank);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("team", team(row));
+            entry.put("averageScore", average);
+            entry.put("normalizedScore", Double.isNaN(score) ? null : score);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * The score matrix as it was when the event was archived, in the shape
+     * {@link ScoreMatrixService#build} returns.
+     */
+    public ScoreMatrix matrix() {
+        long epochDay = buffer.getLong(16);
+        EventSummary event = new EventSummary(eventId(), string(buffer.getInt(24)),
+                epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay));
+        List<JudgeSummary> judgeList = new ArrayList<>(judges);
+        for (int j = 0; j < judges; j++) {
+            judgeList.add(new JudgeSummary(buffer.getLong(layout.judgeId + 8 * j),
+                    string(buffer.getInt(layout.judgeName + 4 * j)), string(buffer.getInt(layout.judgeEmail + 4 * j))));
+        }
+        List<CriterionSummary> criterionList = new ArrayList<>(criteria);
+        for (int c = 0; c < criteria; c++) {
+            criterionList.add(new CriterionSummary(buffer.getLong(layout.criterionId + 8 * c),
+                    string(buffer.getInt(layout.criterionName + 4 * c)), buffer.getDouble(layout.criterionWeight + 8 * c)));
+        }
+
+        List<ScoreMatrix.Row> rows = new ArrayList<>(teams);
+        for (int t = 0; t < teams; t++) {
+            Double[] finalScores = new Double[judges];
+            String[] comments = new String[judges];
+            Integer[][] values = new Integer[judges][];
+            for (int j = 0; j < judges; j++) {
+                int cell = t * judges + j;
+                double score = buffer.getDouble(layout.cellScore + 8 * cell);
+                if (Double.isNaN(score)) {
+                    continue;
+                }
+                finalScores[j] = score;
+                comments[j] = string(buffer.getInt(layout.cellComment + 4 * cell));
+                Integer[] cellValues = new Integer[criteria];
+                for (int c = 0; c < criteria; c++) {
+                    int value = buffer.getInt(layout.cellValue + 4 * (cell * criteria + c));
+                    cellValues[c] = value == NO_VALUE ? null : value;
+                }
+                values[j] = cellValues;
+            }
+            rows.add(new ScoreMatrix.Row(team(t), buffer.getDouble(layout.teamAverage + 8 * t),
+                    buffer.getInt(layout.teamScoresCount + 4 * t), finalScores, comments, values));
+        }
+        return new ScoreMatrix(event, judgeList, criterionList, rows);
+    }
+
+    private TeamSummary team(int row) {
+        return new TeamSummary(buffer.getLong(layout.teamId + 8 * row), string(buffer.getInt(layout.teamName + 4 * row)),
+                buffer.getInt(layout.teamNumber + 4 * row), string(buffer.getInt(layout.teamDescription + 4 * row)));
+    }
+
+    private String string(int id) {
+        if (id == NULL_STRING) {
+            return null;
+        }
+        String value = decoded[id];
+        if (value == null) {
+            int start = buffer.getInt(layout.strings + 4 + 4 * id);
+            int end = buffer.getInt(layout.strings + 4 + 4 * (id + 1));
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringBytes + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            decoded[id] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Every distinct string of the event, stored once however many cells repeat it.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private int size;
+
+        int id(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            return ids.computeIfAbsent(value, key -> {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                values.add(bytes);
+                size += bytes.length;
+                return values.size() - 1;
+            });
+        }
+
+        ByteBuffer encode() {
+            ByteBuffer encoded = ByteBuffer.allocate(4 + 4 * (values.size() + 1) + size);
+            encoded.putInt(values.size());
+            int offset = 0;
+            for (byte[] value : values) {
+                encoded.putInt(offset);
+                offset += value.length;
+            }
+            encoded.putInt(offset);
+            for (byte[] value : values) {
+                encoded.put(value);
+            }
+            return encoded.flip();
+        }
+    }
+}
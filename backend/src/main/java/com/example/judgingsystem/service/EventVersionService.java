@@ -0,0 +1,55 @@
+package com.example.judgingsystem.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter per event that goes up whenever anything shown on the event's dashboards
+ * changes: its teams, its judges, their scores or how the leaderboard is ranked. Read
+ * endpoints turn it into a strong ETag, so an unchanged list is answered with a 304
+ * without touching the database.
+ *
+ * Versions only live in memory. Every ETag carries the time this instance started, so
+ * a tag handed out before a restart, or by another instance, never matches by accident.
+ * Writers bump after their change is committed; a read racing a write can at worst tag
+ * new data with the old version, which the next bump then invalidates.
+ */
+@Service
+public class EventVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(Long eventId) {
+        AtomicLong version = versions.get(eventId);
+        return version == null ? 0 : version.get();
+    }
+
+    public void bump(Long eventId) {
+        // Entries are kept after an event is deleted, so its id never goes back to 0
+        versions.computeIfAbsent(eventId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * ETag of a view of the whole event, such as its team list.
+     */
+    public String etag(Long eventId) {
+        return "\"" + epoch + "-" + eventId + "-" + current(eventId) + "\"";
+    }
+
+    /**
+     * ETag of a judge's own view of an event. The judge is part of the tag because the
+     * same URL shows every judge something different.
+     */
+    public String etag(Long eventId, Long judgeId) {
+        return "\"" + epoch + "-" + eventId + "-" + current(eventId) + "-" + judgeId + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        bump(event.eventId());
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.TeamScoreRow;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.model.NormalizationMethod;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a running sum/count per team and a ranking ordered by average score for every
+ * event, so leaderboard reads never go to the database. Boards are loaded lazily (and
+ * eagerly at startup) and then kept current from {@link ScoreSubmittedEvent}s.
+ *
+ * Events that normalize judges' scores are ranked by the mean normalized score from a
+ * {@link ScoreGrid} instead; the raw average is still reported alongside it.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Comparator<Standing> RANKING = Comparator
+            .comparingDouble(Standing::average).reversed()
+            .thenComparing(standing -> standing.team().getId());
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    private final Map<Long, EventBoard> boards = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the top {@code limit} teams of the event (all teams when limit is null,
+     * none when it is negative), highest average first.
+     */
+    public List<Map<String, Object>> getLeaderboard(Long eventId, Integer limit) {
+        EventBoard board = loadedBoard(eventId);
+        return board.top(limit == null ? Integer.MAX_VALUE : Math.max(0, limit));
+    }
+
+    /**
+     * Discards whatever is held for the event and reloads it from the database.
+     */
+    public void rebuild(Long eventId) {
+        EventBoard board = boards.computeIfAbsent(eventId, EventBoard::new);
+        board.load();
+    }
+
+    public void normalizationChanged(Long eventId, NormalizationMethod method) {
+        EventBoard board = boards.get(eventId);
+        if (board != null) {
+            board.normalize(method);
+        }
+    }
+
+    public void teamAdded(Long eventId, TeamSummary team) {
+        EventBoard board = boards.get(eventId);
+        if (board != null) {
+            board.addTeam(team);
+        }
+    }
+
+    public void evict(Long eventId) {
+        boards.remove(eventId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        eventRepository.findLiveIds().forEach(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        EventBoard board = boards.get(event.eventId());
+        if (board != null && !board.apply(event)) {
+            // Unknown team: reload on the next read rather than on this request's connection
+            board.invalidate();
+        }
+    }
+
+    private EventBoard loadedBoard(Long eventId) {
+        EventBoard board = boards.computeIfAbsent(eventId, EventBoard::new);
+        board.ensureLoaded();
+        return board;
+    }
+
+    private record Standing(TeamSummary team, double sum, int count) {
+        double average() {
+            return count == 0 ? 0.0 : sum / count;
+        }
+    }
+
+    private class EventBoard {
+        private final Long eventId;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Held for a whole load so loads never overlap; never taken while holding the lock
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private final Map<Long, Standing> standings = new HashMap<>();
+        private final TreeSet<Standing> ranking = new TreeSet<>(RANKING);
+        private final Set<Long> appliedScoreIds = new HashSet<>();
+        private final ScoreGrid grid = new ScoreGrid(NormalizationMethod.NONE);
+        private volatile boolean loaded;
+        // Scores applied while a load is querying, non-null only during a load
+        private List<ScoreSubmittedEvent> appliedDuringLoad;
+        // A team or the normalization changed during a load, which may have read it before
+        private boolean changedDuringLoad;
+
+        EventBoard(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        void ensureLoaded() {
+            if (!loaded) {
+                loadLock.lock();
+                try {
+                    if (!loaded) {
+                        load();
+                    }
+                } finally {
+                    loadLock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Reads the event from the database without holding the board lock, then swaps
+         * it in. Score submissions keep their database connection until their request
+         * ends, so if they queued on the board lock while a load waited for a connection
+         * the pool could run dry with everyone waiting on everyone else. Scores applied
+         * while the queries run are replayed on top of what they returned.
+         */
+        void load() {
+            loadLock.lock();
+            try {
+                lock.writeLock().lock();
+                try {
+                    appliedDuringLoad = new ArrayList<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                try {
+                    if (!eventRepository.existsById(eventId)) {
+                        boards.remove(eventId, this);
+                        throw new NoSuchElementException("No event with id " + eventId);
+                    }
+                    NormalizationMethod method = eventRepository.findNormalizationById(eventId)
+                            .orElse(NormalizationMethod.NONE);
+                    List<TeamSummary> teams = teamRepository.findSummariesByEventId(eventId);
+                    List<TeamScoreRow> rows = scoreRepository.findTeamScoreRowsByEventId(eventId);
+                    swapIn(method, teams, rows);
+                } catch (RuntimeException e) {
+                    lock.writeLock().lock();
+                    appliedDuringLoad = null;
+                    changedDuringLoad = false;
+                    lock.writeLock().unlock();
+                    throw e;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        private void swapIn(NormalizationMethod method, List<TeamSummary> teams, List<TeamScoreRow> rows) {
+            lock.writeLock().lock();
+            try {
+                standings.clear();
+                ranking.clear();
+                appliedScoreIds.clear();
+                grid.clear(NormalizationMethod.NONE);
+                for (TeamSummary team : teams) {
+                    put(new Standing(team, 0.0, 0));
+                    grid.addTeam(team.getId());
+                }
+                for (TeamScoreRow row : rows) {
+                    add(row.scoreId(), row.teamId(), row.judgeId(), row.finalScore());
+                }
+                // Committed after the queries began; those already in the rows are skipped by id
+                for (ScoreSubmittedEvent event : appliedDuringLoad) {
+                    add(event.scoreId(), event.teamId(), event.judgeId(), event.finalScore());
+                }
+                appliedDuringLoad = null;
+                grid.normalizeAll(method);
+                loaded = !changedDuringLoad;
+                changedDuringLoad = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Makes the next read reload the board.
+         */
+        void invalidate() {
+            loaded = false;
+        }
+
+        void addTeam(TeamSummary team) {
+            lock.writeLock().lock();
+            try {
+                changedDuringLoad |= appliedDuringLoad != null;
+                if (!standings.containsKey(team.getId())) {
+                    put(new Standing(team, 0.0, 0));
+                    grid.addTeam(team.getId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Folds one score into the running totals. Returns false when the board does not
+         * know the team, in which case the caller has it reloaded.
+         */
+        boolean apply(ScoreSubmittedEvent event) {
+            lock.writeLock().lock();
+            try {
+                if (appliedDuringLoad != null) {
+                    appliedDuringLoad.add(event);
+                }
+                if (!loaded) {
+                    return true;
+                }
+                return add(event.scoreId(), event.teamId(), event.judgeId(), event.finalScore());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void normalize(NormalizationMethod method) {
+            lock.writeLock().lock();
+            try {
+                changedDuringLoad |= appliedDuringLoad != null;
+                if (loaded) {
+                    grid.normalizeAll(method);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Map<String, Object>> top(int limit) {
+            lock.readLock().lock();
+            try {
+                if (grid.method() != NormalizationMethod.NONE) {
+                    return topNormalized(limit);
+                }
+                List<Map<String, Object>> result = new ArrayList<>(Math.min(limit, ranking.size()));
+                for (Standing standing : ranking) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    result.add(Map.of("team", standing.team(), "averageScore", standing.average()));
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private List<Map<String, Object>> topNormalized(int limit) {
+            int size = Math.min(limit, grid.teamCount());
+            List<Map<String, Object>> result = new ArrayList<>(size);
+            for (int rank = 0; rank < size; rank++) {
+                Standing standing = standings.get(grid.teamAt(rank));
+                double score = grid.scoreAt(rank);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("team", standing.team());
+                entry.put("averageScore", standing.average());
+                entry.put("normalizedScore", Double.isNaN(score) ? null : score);
+                result.add(entry);
+            }
+            return result;
+        }
+
+        private boolean add(Long scoreId, Long teamId, Long judgeId, double finalScore) {
+            Standing current = standings.get(teamId);
+            if (current == null) {
+                return false;
+            }
+            // A score committed while the board was loading is already in the totals
+            if (!appliedScoreIds.add(scoreId)) {
+                return true;
+            }
+            ranking.remove(current);
+            put(new Standing(current.team(), current.sum() + finalScore, current.count() + 1));
+            grid.put(teamId, judgeId, finalScore);
+            return true;
+        }
+
+        private void put(Standing standing) {
+            standings.put(standing.team().getId(), standing);
+            ranking.add(standing);
+        }
+    }
+}
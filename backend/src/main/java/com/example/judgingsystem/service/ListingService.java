@@ -0,0 +1,199 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.CursorPage;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ListRequest;
+import com.example.judgingsystem.dto.ScoreValueRow;
+import com.example.judgingsystem.dto.ScoredTeamRow;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination of the team, judge and scored-team lists. A page is the rows
+ * after the last one of the previous page in (id) or (name, id) order, so every page
+ * costs one index range scan however deep the client has paged, and rows added
+ * meanwhile are neither skipped nor repeated.
+ *
+ * Rows without a name come after the named ones when sorting by name, in id order.
+ * They are read with a query of their own once the named rows run out, so each query
+ * stays a plain range over the (name, id) index, with no coalescing of nulls.
+ *
+ * The cursor is the sort key of the last row, base64url-encoded. Clients should treat
+ * it as opaque and only pass it back with the same {@code sort} and {@code q}.
+ */
+@Service
+public class ListingService {
+
+    public enum Sort { ID, NAME }
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Value("${listing.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${listing.max-limit:200}")
+    private int maxLimit;
+
+    public CursorPage<TeamSummary> teams(Long eventId, ListRequest request) {
+        Page page = parse(request);
+        List<TeamSummary> rows = page.sort == Sort.NAME
+                ? page.byName(
+                        (afterName, afterId, limit) -> teamRepository.findSummaryPageByEventIdOrderByName(eventId,
+                                afterName, afterId, page.pattern, limit),
+                        (afterId, limit) -> teamRepository.findUnnamedSummaryPageByEventId(eventId, afterId, limit))
+                : teamRepository.findSummaryPageByEventId(eventId, page.afterId, page.pattern, page.fetchLimit());
+        return page.toPage(rows, TeamSummary::getId, TeamSummary::getTeamName);
+    }
+
+    public CursorPage<JudgeSummary> judges(Long eventId, ListRequest request) {
+        Page page = parse(request);
+        List<JudgeSummary> rows = page.sort == Sort.NAME
+                ? page.byName(
+                        (afterName, afterId, limit) -> userRepository.findJudgeSummaryPageByEventIdOrderByName(eventId,
+                                afterName, afterId, page.pattern, limit),
+                        (afterId, limit) -> userRepository.findUnnamedJudgeSummaryPageByEventId(eventId, afterId, limit))
+                : userRepository.findJudgeSummaryPageByEventId(eventId, page.afterId, page.pattern, page.fetchLimit());
+        return page.toPage(rows, JudgeSummary::getId, JudgeSummary::getName);
+    }
+
+    /**
+     * Judges of every event that have both a name and an email.
+     */
+    public CursorPage<JudgeSummary> allJudges(ListRequest request) {
+        Page page = parse(request);
+        List<JudgeSummary> rows = page.sort == Sort.NAME
+                ? userRepository.findJudgeSummaryPageOrderByName(page.afterName, page.afterId, page.pattern,
+                        page.fetchLimit())
+                : userRepository.findJudgeSummaryPage(page.afterId, page.pattern, page.fetchLimit());
+        return page.toPage(rows, JudgeSummary::getId, JudgeSummary::getName);
+    }
+
+    /**
+     * A judge's scores with their teams, searched and sorted by team name. The criterion
+     * values of the page are read with one more query.
+     */
+    public CursorPage<ScoredTeamRow> scoredTeams(Long judgeId, ListRequest request) {
+        Page page = parse(request);
+        List<ScoredTeamRow> rows = page.sort == Sort.NAME
+                ? page.byName(
+                        (afterName, afterId, limit) -> scoreRepository.findScoredTeamPageByJudgeIdOrderByName(judgeId,
+                                afterName, afterId, page.pattern, limit),
+                        (afterId, limit) -> scoreRepository.findUnnamedScoredTeamPageByJudgeId(judgeId, afterId, limit))
+                : scoreRepository.findScoredTeamPageByJudgeId(judgeId, page.afterId, page.pattern, page.fetchLimit());
+        return page.toPage(rows, ScoredTeamRow::scoreId, ScoredTeamRow::teamName);
+    }
+
+    /**
+     * Criterion values of the given scores, by score id and then criterion name.
+     */
+    public Map<Long, Map<String, Object>> criterionValues(List<ScoredTeamRow> rows) {
+        Map<Long, Map<String, Object>> values = new HashMap<>();
+        if (rows.isEmpty()) {
+            return values;
+        }
+        List<Long> scoreIds = rows.stream().map(ScoredTeamRow::scoreId).toList();
+        for (ScoreValueRow row : scoreRepository.findValuesByScoreIds(scoreIds)) {
+            values.computeIfAbsent(row.scoreId(), id -> new HashMap<>()).put(row.criterion(), row.value());
+        }
+        return values;
+    }
+
+    private Page parse(ListRequest request) {
+        Sort sort;
+        try {
+            sort = Sort.valueOf(request.getSort().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + request.getSort());
+        }
+        int limit = request.getLimit() == null ? defaultLimit : Math.min(Math.max(request.getLimit(), 1), maxLimit);
+        String q = request.getQ() == null ? "" : request.getQ().trim().toLowerCase(Locale.ROOT);
+        // '%' alone means no search; the search text's own wildcards are escaped
+        String pattern = q.isEmpty() ? "%"
+                : "%" + q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        long afterId = 0;
+        // Null once a by-name listing has reached the rows without a name
+        String afterName = "";
+        if (request.getAfter() != null && !request.getAfter().isEmpty()) {
+            try {
+                String cursor = new String(Base64.getUrlDecoder().decode(request.getAfter()), StandardCharsets.UTF_8);
+                int separator = cursor.indexOf(':');
+                afterId = Long.parseLong(separator < 0 ? cursor : cursor.substring(0, separator));
+                afterName = separator < 0 ? null : cursor.substring(separator + 1);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        return new Page(sort, limit, pattern, afterId, afterName);
+    }
+
+    @FunctionalInterface
+    private interface NamedRows<T> {
+        List<T> find(String afterName, long afterId, Limit limit);
+    }
+
+    @FunctionalInterface
+    private interface UnnamedRows<T> {
+        List<T> find(long afterId, Limit limit);
+    }
+
+    private record Page(Sort sort, int limit, String pattern, long afterId, String afterName) {
+
+        // One row more than the page tells whether another page follows
+        Limit fetchLimit() {
+            return Limit.of(limit + 1);
+        }
+
+        /**
+         * The named rows after the cursor, followed by rows without a name when the
+         * page is not full yet. A search never matches a row without a name.
+         */
+        <T> List<T> byName(NamedRows<T> named, UnnamedRows<T> unnamed) {
+            List<T> rows = new ArrayList<>();
+            if (afterName != null) {
+                rows.addAll(named.find(afterName, afterId, fetchLimit()));
+            }
+            if (rows.size() <= limit && pattern.equals("%")) {
+                rows.addAll(unnamed.find(afterName == null ? afterId : 0, Limit.of(limit + 1 - rows.size())));
+            }
+            return rows;
+        }
+
+        <T> CursorPage<T> toPage(List<T> rows, Function<T, Long> id, Function<T, String> name) {
+            if (rows.size() <= limit) {
+                return new CursorPage<>(rows, null);
+            }
+            List<T> items = new ArrayList<>(rows.subList(0, limit));
+            T last = items.get(limit - 1);
+            // By name, a cursor without a name continues among the rows without one
+            String key = sort == Sort.NAME && name.apply(last) != null
+                    ? id.apply(last) + ":" + name.apply(last)
+                    : String.valueOf(id.apply(last));
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+            return new CursorPage<>(items, cursor);
+        }
+    }
+}
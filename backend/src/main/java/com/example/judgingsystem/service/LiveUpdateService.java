@@ -0,0 +1,240 @@
+package com.example.judgingsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans out small per-event change notifications to dashboards over Server-Sent Events.
+ *
+ * Publishing never blocks: each subscriber owns a bounded queue that is drained on its
+ * own virtual thread, and a subscriber that falls a full buffer behind is disconnected
+ * so it reconnects and resumes from the event history instead of slowing anyone else.
+ * Clients resume with the standard {@code Last-Event-ID} header; when the requested
+ * position is no longer retained they get a {@code RESET} event and should re-fetch.
+ */
+@Service
+public class LiveUpdateService {
+
+    public static final String SCORE_SUBMITTED = "SCORE_SUBMITTED";
+    public static final String TEAM_ADDED = "TEAM_ADDED";
+    public static final String TEAMS_IMPORTED = "TEAMS_IMPORTED";
+    public static final String JUDGE_ASSIGNED = "JUDGE_ASSIGNED";
+    public static final String EVENT_DELETED = "EVENT_DELETED";
+    public static final String RESET = "RESET";
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${live-updates.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${live-updates.history-size:1024}")
+    private int historySize;
+
+    @Value("${live-updates.timeout:PT30M}")
+    private Duration timeout;
+
+    private record Update(long id, String type, Object data) {
+    }
+
+    public SseEmitter subscribe(Long eventId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        Channel channel = channels.computeIfAbsent(eventId, id -> new Channel());
+        channel.join(subscriber, lastEventId);
+        emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> channel.subscribers.remove(subscriber));
+        emitter.onError(error -> channel.subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public void publish(Long eventId, String type, Object data) {
+        Channel channel = channels.get(eventId);
+        if (channel != null) {
+            channel.publish(type, data);
+        }
+    }
+
+    /**
+     * Tells subscribers the event is gone and closes their streams.
+     */
+    public void close(Long eventId) {
+        Channel channel = channels.remove(eventId);
+        if (channel != null) {
+            channel.publish(EVENT_DELETED, Map.of("eventId", eventId));
+            channel.subscribers.forEach(Subscriber::completeWhenDrained);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        publish(event.eventId(), SCORE_SUBMITTED, Map.of(
+                "teamId", event.teamId(),
+                "judgeId", event.judgeId(),
+                "finalScore", event.finalScore()));
+    }
+
+    @Scheduled(fixedRateString = "${live-updates.heartbeat:PT20S}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private class Channel {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Update> history = new ArrayDeque<>();
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private long lastId;
+
+        void publish(String type, Object data) {
+            lock.lock();
+            try {
+                Update update = new Update(++lastId, type, data);
+                if (history.size() == historySize) {
+                    history.removeFirst();
+                }
+                history.addLast(update);
+                // Enqueue under the lock so every subscriber sees updates in id order
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.offer(update)) {
+                        subscribers.remove(subscriber);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void join(Subscriber subscriber, Long lastEventId) {
+            lock.lock();
+            try {
+                if (lastEventId != null && lastEventId < lastId) {
+                    List<Update> missed = new ArrayList<>();
+                    for (Update update : history) {
+                        if (update.id() > lastEventId) {
+                            missed.add(update);
+                        }
+                    }
+                    boolean gap = history.isEmpty() || history.peekFirst().id() > lastEventId + 1;
+                    // At most a buffer's worth, so none of these offers is refused
+                    if (gap || missed.size() > bufferSize) {
+                        subscriber.offer(new Update(lastId, RESET, Map.of()));
+                    } else {
+                        missed.forEach(subscriber::offer);
+                    }
+                } else if (lastEventId != null && lastEventId > lastId) {
+                    // Ids from before a restart mean nothing now
+                    subscriber.offer(new Update(lastId, RESET, Map.of()));
+                }
+                subscribers.add(subscriber);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Update> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closing;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the update, or returns false when the subscriber is a full buffer
+         * behind. It is then disconnected and the caller drops it.
+         */
+        boolean offer(Update update) {
+            if (!queue.offer(update)) {
+                log.debug("Disconnecting slow live update subscriber");
+                queue.clear();
+                // complete() waits for a send in progress, so it never runs on the publisher's thread
+                senders.execute(emitter::complete);
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        void heartbeat() {
+            if (queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(() -> {
+                    try {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        emitter.completeWithError(e);
+                    } finally {
+                        draining.set(false);
+                    }
+                    scheduleDrain();
+                });
+            }
+        }
+
+        void completeWhenDrained() {
+            closing = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Update update;
+                while ((update = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(update.id()))
+                            .name(update.type())
+                            .data(update.data(), MediaType.APPLICATION_JSON));
+                }
+                if (closing) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
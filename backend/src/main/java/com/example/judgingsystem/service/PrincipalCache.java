@@ -0,0 +1,92 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.CacheStatistics;
+import com.example.judgingsystem.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, time-limited cache of {@link UserPrincipal}s keyed by email, shared by the
+ * JWT filter and the controllers so an authenticated request resolves its user once
+ * at most. Anything that changes a user's role, event or password must call
+ * {@link #invalidate(String)} or {@link #invalidateEvent(Long)}.
+ */
+@Service
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principals;
+    private final AtomicLong invalidations = new AtomicLong();
+    // Bumped before every invalidation, so a load that raced with one can tell
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                          @Value("${principal-cache.max-size:10000}") long maxSize,
+                          @Value("${principal-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    /**
+     * Loads on a miss without holding any cache lock: a computing get would keep a map
+     * bin locked for the whole query, pinning the carrier of a virtual thread.
+     */
+    public Optional<UserPrincipal> findByEmail(String email) {
+        UserPrincipal cached = principals.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<UserPrincipal> loaded = userRepository.findByEmail(email).map(UserPrincipal::of);
+        loaded.ifPresent(principal -> {
+            principals.put(email, principal);
+            if (generation.get() != loadedAt) {
+                // Invalidated while we were querying, so what we just cached may be stale
+                principals.asMap().remove(email, principal);
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        generation.incrementAndGet();
+        if (principals.asMap().remove(email) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops every cached judge assigned to the event, e.g. after the event is deleted.
+     */
+    public void invalidateEvent(Long eventId) {
+        generation.incrementAndGet();
+        principals.asMap().values().removeIf(principal -> {
+            boolean assigned = eventId.equals(principal.eventId());
+            if (assigned) {
+                invalidations.incrementAndGet();
+            }
+            return assigned;
+        });
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = principals.stats();
+        return new CacheStatistics(principals.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), invalidations.get());
+    }
+}
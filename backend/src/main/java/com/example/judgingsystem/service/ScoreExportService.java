@@ -0,0 +1,365 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ScoreMatrix;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.repository.CriterionRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an event's leaderboard with per-judge totals and per-criterion values straight
+ * to an output stream. Rows come from one query read through a database cursor and are
+ * emitted team by team, so memory stays at one team's row whatever the event size.
+ *
+ * Teams come out in the order of {@link LeaderboardService}, normalization included,
+ * and their average and count cover the scores of judges assigned to the event, the
+ * same scores the judge columns show.
+ */
+@Service
+public class ScoreExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // One row per (team, score, criterion value) of the assigned judges, ordered so each team's rows are
+    // contiguous and teams come out in the order of the ranked team ids bound as the first parameter
+    private static final String EXPORT_QUERY = """
+            select t.id as team_id, t.team_name, t.team_number, t.description,
+                   s.judge_id, s.final_score, s.comment, sc.criterion_id, sc.value
+            from unnest(?) with ordinality as ranked(team_id, ranking)
+            join team t on t.id = ranked.team_id
+            left join score s on s.team_id = t.id and s.judge_id = any(?)
+            left join score_criterion sc on sc.score_id = s.id
+            where t.event_id = ?
+            order by ranked.ranking, s.judge_id, sc.criterion_id
+            """;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CriterionRepository criterionRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate cursorTemplate;
+
+    @Autowired
+    public ScoreExportService(DataSource dataSource, @Value("${export.fetch-size:500}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+    }
+
+    public void export(Long eventId, Format format, OutputStream out) throws IOException {
+        List<JudgeSummary> judges = userRepository.findJudgeSummariesByEventId(eventId);
+        List<CriterionSummary> criteria = criterionRepository.findSummariesByEventId(eventId);
+        Long[] ranking = rankedTeamIds(leaderboardService.getLeaderboard(eventId, null));
+        Long[] judgeIds = judges.stream().map(JudgeSummary::getId).toArray(Long[]::new);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowSink sink = format == Format.CSV ? new CsvSink(writer, judges, criteria) : new NdjsonSink(writer, judges, criteria);
+        sink.start();
+        writer.flush();
+
+        TeamRow current = new TeamRow(judges.size(), criteria.size());
+        Map<Long, Integer> judgeIndex = indexOf(judges.stream().map(JudgeSummary::getId).toList());
+        Map<Long, Integer> criterionIndex = indexOf(criteria.stream().map(CriterionSummary::getId).toList());
+        try {
+            // A transaction keeps the connection out of autocommit so the driver can use a cursor
+            transactionTemplate.executeWithoutResult(status -> cursorTemplate.query(EXPORT_QUERY, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", ranking));
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", judgeIds));
+                ps.setLong(3, eventId);
+            }, (RowCallbackHandler) rs -> {
+                long teamId = rs.getLong("team_id");
+                if (current.teamId != null && current.teamId != teamId) {
+                    emit(sink, current);
+                }
+                if (current.teamId == null || current.teamId != teamId) {
+                    current.start(rs);
+                }
+                Integer j = judgeIndex.get(nullableLong(rs, "judge_id"));
+                if (j != null) {
+                    current.finalScores[j] = rs.getDouble("final_score");
+                    current.comments[j] = rs.getString("comment");
+                    Integer c = criterionIndex.get(nullableLong(rs, "criterion_id"));
+                    if (c != null) {
+                        current.values[j * criteria.size() + c] = rs.getInt("value");
+                    }
+                }
+            }));
+            if (current.teamId != null) {
+                emit(sink, current);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes an archived event from its score matrix, in the same layout as a live
+     * export and in the order of the leaderboard archived with it.
+     */
+    public void export(ScoreMatrix matrix, List<Map<String, Object>> leaderboard, Format format, OutputStream out)
+            throws IOException {
+        List<JudgeSummary> judges = matrix.getJudges();
+        List<CriterionSummary> criteria = matrix.getCriteria();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowSink sink = format == Format.CSV ? new CsvSink(writer, judges, criteria) : new NdjsonSink(writer, judges, criteria);
+        sink.start();
+        Map<Long, ScoreMatrix.Row> rows = new HashMap<>(matrix.getRows().size() * 2);
+        for (ScoreMatrix.Row row : matrix.getRows()) {
+            rows.put(row.getTeam().getId(), row);
+        }
+        TeamRow current = new TeamRow(judges.size(), criteria.size());
+        for (Long teamId : rankedTeamIds(leaderboard)) {
+            ScoreMatrix.Row row = rows.get(teamId);
+            if (row != null) {
+                current.start(row);
+                sink.write(current);
+            }
+        }
+        writer.flush();
+    }
+
+    private static Long[] rankedTeamIds(List<Map<String, Object>> leaderboard) {
+        return leaderboard.stream().map(entry -> ((TeamSummary) entry.get("team")).getId()).toArray(Long[]::new);
+    }
+
+    private static void emit(RowSink sink, TeamRow row) {
+        row.total();
+        try {
+            sink.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Map<Long, Integer> indexOf(List<Long> ids) {
+        Map<Long, Integer> index = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            index.put(ids.get(i), i);
+        }
+        return index;
+    }
+
+    /**
+     * The team currently being assembled; reused for every team to keep allocation flat.
+     */
+    private static class TeamRow {
+        Long teamId;
+        int rank;
+        String teamName;
+        int teamNumber;
+        String description;
+        double averageScore;
+        long scoresCount;
+        final Double[] finalScores;
+        final String[] comments;
+        final Integer[] values;
+
+        TeamRow(int judgeCount, int criterionCount) {
+            finalScores = new Double[judgeCount];
+            comments = new String[judgeCount];
+            values = new Integer[judgeCount * criterionCount];
+        }
+
+        void start(ResultSet rs) throws SQLException {
+            teamId = rs.getLong("team_id");
+            rank++;
+            teamName = rs.getString("team_name");
+            teamNumber = rs.getInt("team_number");
+            description = rs.getString("description");
+            Arrays.fill(finalScores, null);
+            Arrays.fill(comments, null);
+            Arrays.fill(values, null);
+        }
+
+        /**
+         * Averages the judge totals read for the team, as {@link ScoreMatrixService} does.
+         */
+        void total() {
+            double sum = 0.0;
+            int scored = 0;
+            for (Double finalScore : finalScores) {
+                if (finalScore != null) {
+                    sum += finalScore;
+                    scored++;
+                }
+            }
+            averageScore = scored == 0 ? 0.0 : sum / scored;
+            scoresCount = scored;
+        }
+
+        void start(ScoreMatrix.Row row) {
+            teamId = row.getTeam().getId();
+            rank++;
+            teamName = row.getTeam().getTeamName();
+            teamNumber = row.getTeam().getTeamNumber();
+            description = row.getTeam().getDescription();
+            averageScore = row.getAverageScore();
+            scoresCount = row.getScoresCount();
+            int criterionCount = finalScores.length == 0 ? 0 : values.length / finalScores.length;
+            for (int j = 0; j < finalScores.length; j++) {
+                finalScores[j] = row.getFinalScores()[j];
+                comments[j] = row.getComments()[j];
+                Integer[] cellValues = row.getCriterionValues()[j];
+                for (int c = 0; c < criterionCount; c++) {
+                    values[j * criterionCount + c] = cellValues == null ? null : cellValues[c];
+                }
+            }
+        }
+    }
+
+    private interface RowSink {
+        void start() throws IOException;
+
+        void write(TeamRow row) throws IOException;
+    }
+
+    private static class CsvSink implements RowSink {
+        private final Writer writer;
+        private final List<JudgeSummary> judges;
+        private final List<CriterionSummary> criteria;
+
+        CsvSink(Writer writer, List<JudgeSummary> judges, List<CriterionSummary> criteria) {
+            this.writer = writer;
+            this.judges = judges;
+            this.criteria = criteria;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write("Rank,Team Name,Team Number,Average Score,Scores Count");
+            for (JudgeSummary judge : judges) {
+                writer.write(',');
+                writer.write(escape(judge.getName() + " - Total"));
+                for (CriterionSummary criterion : criteria) {
+                    writer.write(',');
+                    writer.write(escape(judge.getName() + " - " + criterion.getName()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(TeamRow row) throws IOException {
+            writer.write(Integer.toString(row.rank));
+            writer.write(',');
+            writer.write(escape(row.teamName));
+            writer.write(',');
+            writer.write(Integer.toString(row.teamNumber));
+            writer.write(',');
+            writer.write(Double.toString(row.averageScore));
+            writer.write(',');
+            writer.write(Long.toString(row.scoresCount));
+            for (int j = 0; j < judges.size(); j++) {
+                writer.write(',');
+                if (row.finalScores[j] != null) {
+                    writer.write(row.finalScores[j].toString());
+                }
+                for (int c = 0; c < criteria.size(); c++) {
+                    writer.write(',');
+                    Integer value = row.values[j * criteria.size() + c];
+                    if (value != null) {
+                        writer.write(value.toString());
+                    }
+                }
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class NdjsonSink implements RowSink {
+        private final Writer writer;
+        private final List<JudgeSummary> judges;
+        private final List<CriterionSummary> criteria;
+
+        NdjsonSink(Writer writer, List<JudgeSummary> judges, List<CriterionSummary> criteria) {
+            this.writer = writer;
+            this.judges = judges;
+            this.criteria = criteria;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(TeamRow row) throws IOException {
+            List<Map<String, Object>> judgeScores = new ArrayList<>(judges.size());
+            for (int j = 0; j < judges.size(); j++) {
+                if (row.finalScores[j] == null) {
+                    continue;
+                }
+                Map<String, Object> criterionValues = new LinkedHashMap<>();
+                for (int c = 0; c < criteria.size(); c++) {
+                    criterionValues.put(criteria.get(c).getName(), row.values[j * criteria.size() + c]);
+                }
+                Map<String, Object> judgeScore = new LinkedHashMap<>();
+                judgeScore.put("judgeId", judges.get(j).getId());
+                judgeScore.put("judgeName", judges.get(j).getName());
+                judgeScore.put("finalScore", row.finalScores[j]);
+                judgeScore.put("comment", row.comments[j]);
+                judgeScore.put("criteria", criterionValues);
+                judgeScores.add(judgeScore);
+            }
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("rank", row.rank);
+            line.put("teamId", row.teamId);
+            line.put("teamName", row.teamName);
+            line.put("teamNumber", row.teamNumber);
+            line.put("description", row.description);
+            line.put("averageScore", row.averageScore);
+            line.put("scoresCount", row.scoresCount);
+            line.put("judgeScores", judgeScores);
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.write('\n');
+        }
+    }
+}
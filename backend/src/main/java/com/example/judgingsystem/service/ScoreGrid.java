@@ -0,0 +1,287 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.model.NormalizationMethod;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The final scores of one event as one primitive column per judge, indexed by team
+ * position, together with each judge's normalized scores and a per-team running sum of
+ * them. A new score only renormalizes the column of the judge who gave it, and the
+ * ranking is kept in a team-position array that is re-sorted by insertion sort, which
+ * is close to linear because most of the order survives each update. Full
+ * recomputations (load, method change) merge sort instead.
+ *
+ * Not thread-safe; the owning leaderboard serializes access.
+ */
+class ScoreGrid {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private NormalizationMethod method;
+    private final Map<Long, Integer> teamIndex = new HashMap<>();
+    private final Map<Long, Integer> judgeIndex = new HashMap<>();
+    private int teamCount;
+    private int judgeCount;
+    private long[] teamIds = new long[INITIAL_CAPACITY];
+    // raw[judge][team] and normalized[judge][team]; NaN where the judge has not scored the team
+    private double[][] raw = new double[INITIAL_CAPACITY][];
+    private double[][] normalized = new double[INITIAL_CAPACITY][];
+    private double[] normalizedSum = new double[INITIAL_CAPACITY];
+    private int[] normalizedCount = new int[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] orderScratch = new int[INITIAL_CAPACITY];
+    // Scratch space for ranking one judge's column
+    private int[] ranked = new int[INITIAL_CAPACITY];
+    private int[] rankedScratch = new int[INITIAL_CAPACITY];
+
+    ScoreGrid(NormalizationMethod method) {
+        this.method = method;
+    }
+
+    NormalizationMethod method() {
+        return method;
+    }
+
+    void clear(NormalizationMethod method) {
+        this.method = method;
+        teamIndex.clear();
+        judgeIndex.clear();
+        teamCount = 0;
+        judgeCount = 0;
+    }
+
+    void addTeam(long teamId) {
+        if (teamIndex.containsKey(teamId)) {
+            return;
+        }
+        if (teamCount == teamIds.length) {
+            growTeams(teamCount * 2);
+        }
+        int t = teamCount++;
+        teamIndex.put(teamId, t);
+        teamIds[t] = teamId;
+        normalizedSum[t] = 0.0;
+        normalizedCount[t] = 0;
+        for (int j = 0; j < judgeCount; j++) {
+            raw[j][t] = Double.NaN;
+            normalized[j][t] = Double.NaN;
+        }
+        order[t] = t;
+        if (method != NormalizationMethod.NONE) {
+            sortOrder();
+        }
+    }
+
+    /**
+     * Records a score for a known team and brings the normalized scores and the
+     * ranking up to date. Bulk loads clear to {@code NONE} first so this only stores
+     * the value, then call {@link #normalizeAll} once.
+     */
+    void put(long teamId, long judgeId, double score) {
+        int t = teamIndex.get(teamId);
+        int j = judgeIndex.computeIfAbsent(judgeId, id -> addJudge());
+        raw[j][t] = score;
+        if (method != NormalizationMethod.NONE) {
+            normalize(j);
+            sortOrder();
+        }
+    }
+
+    void normalizeAll(NormalizationMethod method) {
+        this.method = method;
+        Arrays.fill(normalizedSum, 0, teamCount, 0.0);
+        Arrays.fill(normalizedCount, 0, teamCount, 0);
+        for (int j = 0; j < judgeCount; j++) {
+            Arrays.fill(normalized[j], 0, teamCount, Double.NaN);
+            if (method != NormalizationMethod.NONE) {
+                normalize(j);
+            }
+        }
+        for (int t = 0; t < teamCount; t++) {
+            order[t] = t;
+        }
+        if (method != NormalizationMethod.NONE) {
+            mergeSort(order, orderScratch, teamCount, this::ranksBefore);
+        }
+    }
+
+    int teamCount() {
+        return teamCount;
+    }
+
+    /**
+     * Id of the team at the given rank, best first.
+     */
+    long teamAt(int rank) {
+        return teamIds[order[rank]];
+    }
+
+    /**
+     * Mean normalized score of the team at the given rank, NaN when it has no scores.
+     */
+    double scoreAt(int rank) {
+        return normalizedScore(order[rank]);
+    }
+
+    private double normalizedScore(int t) {
+        return normalizedCount[t] == 0 ? Double.NaN : normalizedSum[t] / normalizedCount[t];
+    }
+
+    private int addJudge() {
+        if (judgeCount == raw.length) {
+            raw = Arrays.copyOf(raw, judgeCount * 2);
+            normalized = Arrays.copyOf(normalized, judgeCount * 2);
+        }
+        int j = judgeCount++;
+        raw[j] = new double[teamIds.length];
+        normalized[j] = new double[teamIds.length];
+        Arrays.fill(raw[j], Double.NaN);
+        Arrays.fill(normalized[j], Double.NaN);
+        return j;
+    }
+
+    private void growTeams(int capacity) {
+        teamIds = Arrays.copyOf(teamIds, capacity);
+        normalizedSum = Arrays.copyOf(normalizedSum, capacity);
+        normalizedCount = Arrays.copyOf(normalizedCount, capacity);
+        order = Arrays.copyOf(order, capacity);
+        orderScratch = new int[capacity];
+        ranked = new int[capacity];
+        rankedScratch = new int[capacity];
+        for (int j = 0; j < judgeCount; j++) {
+            raw[j] = Arrays.copyOf(raw[j], capacity);
+            normalized[j] = Arrays.copyOf(normalized[j], capacity);
+        }
+    }
+
+    /**
+     * Recomputes one judge's normalized column and swaps it into the team sums.
+     */
+    private void normalize(int j) {
+        double[] in = raw[j];
+        double[] out = normalized[j];
+        for (int t = 0; t < teamCount; t++) {
+            if (!Double.isNaN(out[t])) {
+                normalizedSum[t] -= out[t];
+                normalizedCount[t]--;
+            }
+        }
+        if (method == NormalizationMethod.Z_SCORE) {
+            zScores(in, out);
+        } else {
+            rankPercentiles(in, out);
+        }
+        for (int t = 0; t < teamCount; t++) {
+            if (!Double.isNaN(out[t])) {
+                normalizedSum[t] += out[t];
+                normalizedCount[t]++;
+            }
+        }
+    }
+
+    private void zScores(double[] in, double[] out) {
+        int n = 0;
+        double sum = 0.0;
+        double sumSquares = 0.0;
+        for (int t = 0; t < teamCount; t++) {
+            if (!Double.isNaN(in[t])) {
+                n++;
+                sum += in[t];
+                sumSquares += in[t] * in[t];
+            }
+        }
+        double mean = n == 0 ? 0.0 : sum / n;
+        double deviation = n == 0 ? 0.0 : Math.sqrt(Math.max(0.0, sumSquares / n - mean * mean));
+        for (int t = 0; t < teamCount; t++) {
+            if (Double.isNaN(in[t])) {
+                out[t] = Double.NaN;
+            } else {
+                // A judge who gave everyone the same score says nothing about relative quality
+                out[t] = deviation < 1e-9 ? 0.0 : (in[t] - mean) / deviation;
+            }
+        }
+    }
+
+    private void rankPercentiles(double[] in, double[] out) {
+        int n = 0;
+        for (int t = 0; t < teamCount; t++) {
+            out[t] = Double.NaN;
+            if (!Double.isNaN(in[t])) {
+                ranked[n++] = t;
+            }
+        }
+        mergeSort(ranked, rankedScratch, n, (a, b) -> in[a] < in[b]);
+        for (int first = 0; first < n; ) {
+            int last = first;
+            while (last + 1 < n && in[ranked[last + 1]] == in[ranked[first]]) {
+                last++;
+            }
+            // Tied scores share the average of the ranks they span
+            double percentile = n == 1 ? 0.5 : (first + last) / 2.0 / (n - 1);
+            for (int k = first; k <= last; k++) {
+                out[ranked[k]] = percentile;
+            }
+            first = last + 1;
+        }
+    }
+
+    private void sortOrder() {
+        for (int i = 1; i < teamCount; i++) {
+            int t = order[i];
+            int k = i - 1;
+            while (k >= 0 && ranksBefore(t, order[k])) {
+                order[k + 1] = order[k];
+                k--;
+            }
+            order[k + 1] = t;
+        }
+    }
+
+    private interface Precedes {
+        boolean test(int a, int b);
+    }
+
+    /**
+     * Stable bottom-up merge sort of the first {@code n} team positions in {@code items}.
+     */
+    private static void mergeSort(int[] items, int[] scratch, int n, Precedes precedes) {
+        int[] from = items;
+        int[] to = scratch;
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int a = lo;
+                int b = mid;
+                for (int k = lo; k < hi; k++) {
+                    to[k] = a < mid && (b >= hi || !precedes.test(from[b], from[a])) ? from[a++] : from[b++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != items) {
+            System.arraycopy(from, 0, items, 0, n);
+        }
+    }
+
+    /**
+     * Higher normalized score first, unscored teams last, then by team id.
+     */
+    private boolean ranksBefore(int a, int b) {
+        double sa = normalizedScore(a);
+        double sb = normalizedScore(b);
+        boolean na = Double.isNaN(sa);
+        boolean nb = Double.isNaN(sb);
+        if (na != nb) {
+            return nb;
+        }
+        if (!na && sa != sb) {
+            return sa > sb;
+        }
+        return teamIds[a] < teamIds[b];
+    }
+}
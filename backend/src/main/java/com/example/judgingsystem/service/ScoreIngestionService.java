@@ -0,0 +1,275 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.JudgeScoreRow;
+import com.example.judgingsystem.dto.ScoreSubmission;
+import com.example.judgingsystem.dto.SubmissionResult;
+import com.example.judgingsystem.dto.SubmissionResult.Status;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Queue in front of score storage for when a whole panel submits at once. A
+ * submission is checked for shape, put on a bounded queue and acknowledged with a
+ * ticket, its submission id. A single writer thread takes whatever has queued up, at
+ * most {@code score-ingestion.max-batch} items or what arrives within
+ * {@code score-ingestion.linger-ms} of the first, and stores it as one group commit
+ * through {@link ScoreSubmissionService#submitGroups}: one transaction and one insert
+ * batch however many judges took part.
+ *
+ * The queue only lives in memory, so a ticket becomes durable when its group commits
+ * and not when it is acknowledged. Tickets not yet written are lost on a restart, and
+ * {@link #status} then finds nothing for them. Clients poll their ticket until it is
+ * written, and submit it again under the same submission id when it is unknown or
+ * FAILED; a submission id is stored at most once. A full queue refuses new
+ * submissions so the client backs off.
+ *
+ * Reads of a judge's own scores call {@link #awaitWrites} first, so they never miss a
+ * submission the judge has already been given a ticket for.
+ */
+@Service
+public class ScoreIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreIngestionService.class);
+
+    private record TicketKey(Long judgeId, String submissionId) {
+    }
+
+    private record Ticket(UserPrincipal judge, ScoreSubmission submission, CompletableFuture<SubmissionResult> result) {
+    }
+
+    private final ScoreSubmissionService scoreSubmissionService;
+    private final ScoreRepository scoreRepository;
+    private final BlockingQueue<Ticket> queue;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final long readWaitMillis;
+    // Tickets stay visible for a while after they are written so clients can see rejections
+    private final Cache<TicketKey, Ticket> tickets;
+    // The newest unwritten ticket of each judge; the writer keeps queue order
+    private final Map<Long, CompletableFuture<SubmissionResult>> lastByJudge = new ConcurrentHashMap<>();
+    private final Counter rejected;
+    private final DistributionSummary groupSize;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public ScoreIngestionService(ScoreSubmissionService scoreSubmissionService, ScoreRepository scoreRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${score-ingestion.queue-capacity:1024}") int queueCapacity,
+                                 @Value("${score-ingestion.max-batch:256}") int maxBatch,
+                                 @Value("${score-ingestion.linger-ms:5}") long lingerMillis,
+                                 @Value("${score-ingestion.read-wait-ms:10000}") long readWaitMillis) {
+        this.scoreSubmissionService = scoreSubmissionService;
+        this.scoreRepository = scoreRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.readWaitMillis = readWaitMillis;
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(10)).build();
+        Gauge.builder("scores.ingestion.queued", queue, BlockingQueue::size)
+                .description("Score submissions waiting for the writer")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("scores.ingestion.rejected")
+                .description("Score submissions turned away because the ingestion queue was full")
+                .register(meterRegistry);
+        this.groupSize = DistributionSummary.builder("scores.ingestion.group.size")
+                .description("Score submissions stored per group commit")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a submission and returns its ticket: a QUEUED result carrying the
+     * submission id, which is generated when the client did not send one. Submitting
+     * a ticket again returns its current state instead of queuing it twice, unless it
+     * failed.
+     *
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public SubmissionResult submit(UserPrincipal judge, ScoreSubmission submission) {
+        if (submission.getSubmissionId() == null || submission.getSubmissionId().isBlank()) {
+            submission.setSubmissionId(UUID.randomUUID().toString());
+        }
+        String invalid = validate(submission);
+        if (invalid != null) {
+            return new SubmissionResult(submission.getSubmissionId(), submission.getTeamId(), Status.REJECTED, null,
+                    null, invalid);
+        }
+
+        TicketKey key = new TicketKey(judge.id(), submission.getSubmissionId());
+        Ticket ticket = new Ticket(judge, submission, new CompletableFuture<>());
+        // Ticket registration, queue order and each judge's newest ticket must agree
+        synchronized (this) {
+            Ticket existing = tickets.getIfPresent(key);
+            if (existing != null && !(existing.result().isDone()
+                    && existing.result().getNow(null).getStatus() == Status.FAILED)) {
+                return state(existing);
+            }
+            if (!queue.offer(ticket)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Score ingestion queue is full");
+            }
+            tickets.put(key, ticket);
+            lastByJudge.put(judge.id(), ticket.result());
+        }
+        ticket.result().whenComplete((result, error) -> lastByJudge.remove(judge.id(), ticket.result()));
+        return state(ticket);
+    }
+
+    /**
+     * Where a ticket stands. Tickets no longer held in memory are looked up among the
+     * stored scores. Empty when neither knows it: the ticket was lost before it was
+     * written, or it was refused long enough ago to be forgotten. Either way
+     * submitting it again is safe.
+     */
+    public Optional<SubmissionResult> status(UserPrincipal judge, String submissionId) {
+        Ticket ticket = tickets.getIfPresent(new TicketKey(judge.id(), submissionId));
+        if (ticket != null) {
+            return Optional.of(state(ticket));
+        }
+        return scoreRepository.findJudgeScoreRowBySubmissionId(judge.id(), submissionId)
+                .map(row -> stored(submissionId, row));
+    }
+
+    /**
+     * Waits until every submission the judge has been given a ticket for is stored or
+     * refused.
+     *
+     * @throws TimeoutException when the writer does not get there within
+     *                          {@code score-ingestion.read-wait-ms}
+     */
+    public void awaitWrites(Long judgeId) throws InterruptedException, TimeoutException {
+        CompletableFuture<SubmissionResult> last = lastByJudge.get(judgeId);
+        if (last == null) {
+            return;
+        }
+        try {
+            last.get(readWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Failed tickets are completed normally; nothing else completes them
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The writer stores what is already queued before it stops
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void writeLoop() {
+        List<Ticket> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (group.size() < maxBatch) {
+                    Ticket next = running ? queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: store what has been taken, then drain the rest without waiting
+            }
+            if (!group.isEmpty()) {
+                write(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void write(List<Ticket> group) {
+        // One entry per judge, submissions in queue order
+        Map<Long, List<Ticket>> byJudge = new LinkedHashMap<>();
+        for (Ticket ticket : group) {
+            byJudge.computeIfAbsent(ticket.judge().id(), id -> new ArrayList<>()).add(ticket);
+        }
+        List<ScoreSubmissionService.JudgeSubmissions> groups = new ArrayList<>();
+        for (List<Ticket> judgeTickets : byJudge.values()) {
+            groups.add(new ScoreSubmissionService.JudgeSubmissions(judgeTickets.get(0).judge(),
+                    judgeTickets.stream().map(Ticket::submission).toList()));
+        }
+
+        List<List<SubmissionResult>> results;
+        try {
+            results = scoreSubmissionService.submitGroups(groups);
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} score submissions failed", group.size(), e);
+            for (Ticket ticket : group) {
+                ScoreSubmission submission = ticket.submission();
+                ticket.result().complete(new SubmissionResult(submission.getSubmissionId(), submission.getTeamId(),
+                        Status.FAILED, null, null, "Not stored, submit again"));
+            }
+            return;
+        }
+        groupSize.record(group.size());
+        int g = 0;
+        for (List<Ticket> judgeTickets : byJudge.values()) {
+            List<SubmissionResult> judgeResults = results.get(g++);
+            for (int i = 0; i < judgeTickets.size(); i++) {
+                judgeTickets.get(i).result().complete(judgeResults.get(i));
+            }
+        }
+    }
+
+    private static String validate(ScoreSubmission submission) {
+        if (submission.getTeamId() == null) {
+            return "Team id is missing";
+        }
+        if (submission.getScores() != null) {
+            for (Map.Entry<String, Object> score : submission.getScores().entrySet()) {
+                if (!(score.getValue() instanceof Number)) {
+                    return "Value for " + score.getKey() + " is not a number";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static SubmissionResult state(Ticket ticket) {
+        SubmissionResult result = ticket.result().getNow(null);
+        if (result != null) {
+            return result;
+        }
+        return new SubmissionResult(ticket.submission().getSubmissionId(), ticket.submission().getTeamId(),
+                Status.QUEUED, null, null, null);
+    }
+
+    private static SubmissionResult stored(String submissionId, JudgeScoreRow row) {
+        return new SubmissionResult(submissionId, row.teamId(), Status.CREATED, row.scoreId(), row.finalScore(), null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.EventSummary;
+import com.example.judgingsystem.dto.JudgeSummary;
+import com.example.judgingsystem.dto.ScoreCellRow;
+import com.example.judgingsystem.dto.ScoreMatrix;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.repository.CriterionRepository;
+import com.example.judgingsystem.repository.EventRepository;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the team x judge x criterion score matrix of an event from a single flat
+ * score query, filling primitive arrays indexed by the position of each team, judge
+ * and criterion instead of walking entity graphs.
+ */
+@Service
+public class ScoreMatrixService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CriterionRepository criterionRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Transactional(readOnly = true)
+    public ScoreMatrix build(Long eventId) {
+        EventSummary event = eventRepository.findSummaryById(eventId).orElseThrow();
+        List<TeamSummary> teams = teamRepository.findSummariesByEventId(eventId);
+        List<JudgeSummary> judges = userRepository.findJudgeSummariesByEventId(eventId);
+        List<CriterionSummary> criteria = criterionRepository.findSummariesByEventId(eventId);
+
+        int teamCount = teams.size();
+        int judgeCount = judges.size();
+        int criterionCount = criteria.size();
+        Map<Long, Integer> teamIndex = indexOf(teams.stream().map(TeamSummary::getId).toList());
+        Map<Long, Integer> judgeIndex = indexOf(judges.stream().map(JudgeSummary::getId).toList());
+        Map<Long, Integer> criterionIndex = indexOf(criteria.stream().map(CriterionSummary::getId).toList());
+
+        // Cell (t, j) lives at t * judgeCount + j; criterion c of that cell at cell * criterionCount + c
+        double[] finalScores = new double[teamCount * judgeCount];
+        Arrays.fill(finalScores, Double.NaN);
+        String[] comments = new String[teamCount * judgeCount];
+        int[] values = new int[teamCount * judgeCount * criterionCount];
+        boolean[] valuePresent = new boolean[values.length];
+
+        for (ScoreCellRow row : scoreRepository.findScoreCellsByEventId(eventId)) {
+            Integer t = teamIndex.get(row.teamId());
+            Integer j = judgeIndex.get(row.judgeId());
+            if (t == null || j == null) {
+                continue; // judge no longer assigned to this event
+            }
+            int cell = t * judgeCount + j;
+            finalScores[cell] = row.finalScore();
+            comments[cell] = row.comment();
+            Integer c = row.criterionId() == null ? null : criterionIndex.get(row.criterionId());
+            if (c != null && row.value() != null) {
+                values[cell * criterionCount + c] = row.value();
+                valuePresent[cell * criterionCount + c] = true;
+            }
+        }
+
+        List<ScoreMatrix.Row> rows = new ArrayList<>(teamCount);
+        for (int t = 0; t < teamCount; t++) {
+            Double[] teamFinalScores = new Double[judgeCount];
+            String[] teamComments = new String[judgeCount];
+            Integer[][] teamValues = new Integer[judgeCount][];
+            double sum = 0.0;
+            int scored = 0;
+            for (int j = 0; j < judgeCount; j++) {
+                int cell = t * judgeCount + j;
+                if (Double.isNaN(finalScores[cell])) {
+                    continue;
+                }
+                sum += finalScores[cell];
+                scored++;
+                teamFinalScores[j] = finalScores[cell];
+                teamComments[j] = comments[cell];
+                Integer[] cellValues = new Integer[criterionCount];
+                for (int c = 0; c < criterionCount; c++) {
+                    int offset = cell * criterionCount + c;
+                    cellValues[c] = valuePresent[offset] ? values[offset] : null;
+                }
+                teamValues[j] = cellValues;
+            }
+            double average = scored == 0 ? 0.0 : sum / scored;
+            rows.add(new ScoreMatrix.Row(teams.get(t), average, scored, teamFinalScores, teamComments, teamValues));
+        }
+        rows.sort((a, b) -> Double.compare(b.getAverageScore(), a.getAverageScore()));
+
+        return new ScoreMatrix(event, judges, criteria, rows);
+    }
+
+    private static Map<Long, Integer> indexOf(List<Long> ids) {
+        Map<Long, Integer> index = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            index.put(ids.get(i), i);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.CriterionSummary;
+import com.example.judgingsystem.dto.JudgeScoreRow;
+import com.example.judgingsystem.dto.ScoreSubmission;
+import com.example.judgingsystem.dto.SubmissionResult;
+import com.example.judgingsystem.dto.SubmissionResult.Status;
+import com.example.judgingsystem.repository.CriterionRepository;
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates and stores many score submissions from one judge at once, e.g. a judge
+ * replaying scores entered while offline. Criteria, event teams and the judge's
+ * existing scores are each loaded once per batch, and everything new is written in a
+ * single transaction. Submissions carrying a submission id that is already stored are
+ * reported as duplicates, so a client can retry a whole batch safely.
+ *
+ * The same path stores the group commits of the score ingestion queue, which hold the
+ * submissions of many judges at once.
+ */
+@Service
+public class ScoreSubmissionService {
+
+    @Autowired
+    private CriterionRepository criterionRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScoreWriter scoreWriter;
+
+    @Autowired
+    private CriterionAggregateService criterionAggregateService;
+
+    @Autowired
+    private EventArchiveService eventArchiveService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * One judge's submissions within a group commit.
+     */
+    public record JudgeSubmissions(UserPrincipal judge, List<ScoreSubmission> submissions) {
+    }
+
+    public List<SubmissionResult> submitBatch(UserPrincipal judge, List<ScoreSubmission> submissions) {
+        return submitGroups(List.of(new JudgeSubmissions(judge, submissions))).get(0);
+    }
+
+    /**
+     * Stores the submissions of several judges in one transaction, with one batch of
+     * score inserts and one of criterion values for all of them. A judge must appear in
+     * at most one group. Results come back in the order of the groups.
+     */
+    public List<List<SubmissionResult>> submitGroups(List<JudgeSubmissions> groups) {
+        try {
+            return transactionTemplate.execute(status -> classifyAndWrite(groups));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored one of these first; classify again against what is now stored
+            return transactionTemplate.execute(status -> classifyAndWrite(groups));
+        }
+    }
+
+    private List<List<SubmissionResult>> classifyAndWrite(List<JudgeSubmissions> groups) {
+        // Judges by id, then teams by id: the lock order every aggregate writer follows
+        List<Long> judgeIds = groups.stream().map(group -> group.judge().id()).toList();
+        userRepository.lockAllById(judgeIds);
+        Map<Long, List<JudgeScoreRow>> storedByJudge = new HashMap<>();
+        for (JudgeScoreRow row : scoreRepository.findJudgeScoreRowsByJudgeIds(judgeIds)) {
+            storedByJudge.computeIfAbsent(row.judgeId(), id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, List<CriterionSummary>> criteriaByEvent = new HashMap<>();
+        Map<Long, Set<Long>> teamsByEvent = new HashMap<>();
+
+        List<SubmissionResult[]> results = new ArrayList<>();
+        List<ScoreWriter.NewScore> pending = new ArrayList<>();
+        // Group and position in the group of each pending score
+        List<int[]> pendingIndex = new ArrayList<>();
+        for (int g = 0; g < groups.size(); g++) {
+            UserPrincipal judge = groups.get(g).judge();
+            List<ScoreSubmission> submissions = groups.get(g).submissions();
+            List<CriterionSummary> criteria = criteriaByEvent.computeIfAbsent(judge.eventId(),
+                    criterionRepository::findSummariesByEventId);
+            Set<Long> eventTeams = teamsByEvent.computeIfAbsent(judge.eventId(),
+                    eventId -> new HashSet<>(teamRepository.findIdsByEventId(eventId)));
+            SubmissionResult[] groupResults = new SubmissionResult[submissions.size()];
+            results.add(groupResults);
+            if (eventArchiveService.isArchived(judge.eventId())) {
+                rejectArchived(submissions, groupResults);
+                continue;
+            }
+            List<Integer> positions = new ArrayList<>();
+            classify(judge, submissions, storedByJudge.getOrDefault(judge.id(), List.of()), criteria, eventTeams,
+                    groupResults, pending, positions);
+            for (int position : positions) {
+                pendingIndex.add(new int[]{g, position});
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            teamRepository.lockAllById(pending.stream().map(ScoreWriter.NewScore::teamId).distinct().toList());
+            // An event archived while this waited for its teams has already been snapshotted
+            for (int p = pending.size() - 1; p >= 0; p--) {
+                int[] index = pendingIndex.get(p);
+                if (eventArchiveService.isArchived(groups.get(index[0]).judge().eventId())) {
+                    ScoreWriter.NewScore score = pending.remove(p);
+                    pendingIndex.remove(p);
+                    results.get(index[0])[index[1]] = new SubmissionResult(score.submissionId(), score.teamId(),
+                            Status.REJECTED, null, null, "Event is archived");
+                }
+            }
+        }
+        List<Long> ids = scoreWriter.insert(pending);
+        Map<Long, List<ScoreWriter.NewScore>> pendingByEvent = new HashMap<>();
+        for (int p = 0; p < pending.size(); p++) {
+            Long eventId = groups.get(pendingIndex.get(p)[0]).judge().eventId();
+            pendingByEvent.computeIfAbsent(eventId, id -> new ArrayList<>()).add(pending.get(p));
+        }
+        pendingByEvent.forEach(criterionAggregateService::record);
+        for (int p = 0; p < pending.size(); p++) {
+            ScoreWriter.NewScore score = pending.get(p);
+            UserPrincipal judge = groups.get(pendingIndex.get(p)[0]).judge();
+            results.get(pendingIndex.get(p)[0])[pendingIndex.get(p)[1]] = new SubmissionResult(score.submissionId(),
+                    score.teamId(), Status.CREATED, ids.get(p), score.finalScore(), null);
+            eventPublisher.publishEvent(new ScoreSubmittedEvent(judge.eventId(), score.teamId(), judge.id(), ids.get(p),
+                    score.finalScore()));
+        }
+        return results.stream().map(List::of).toList();
+    }
+
+    private static void rejectArchived(List<ScoreSubmission> submissions, SubmissionResult[] results) {
+        for (int i = 0; i < submissions.size(); i++) {
+            ScoreSubmission submission = submissions.get(i);
+            results[i] = new SubmissionResult(submission.getSubmissionId(), submission.getTeamId(), Status.REJECTED,
+                    null, null, "Event is archived");
+        }
+    }
+
+    /**
+     * Fills in the result of every submission that is not going to be stored, given the
+     * judge's stored {@code judgeScores}, and adds the others to {@code pending}, with their
+     * index in {@code positions}.
+     */
+    private void classify(UserPrincipal judge, List<ScoreSubmission> submissions, List<JudgeScoreRow> judgeScores,
+                          List<CriterionSummary> criteria, Set<Long> eventTeams, SubmissionResult[] results,
+                          List<ScoreWriter.NewScore> pending, List<Integer> positions) {
+        Map<Long, JudgeScoreRow> scoredTeams = new HashMap<>();
+        Map<String, JudgeScoreRow> storedSubmissions = new HashMap<>();
+        for (JudgeScoreRow row : judgeScores) {
+            scoredTeams.put(row.teamId(), row);
+            if (row.submissionId() != null) {
+                storedSubmissions.put(row.submissionId(), row);
+            }
+        }
+
+        for (int i = 0; i < submissions.size(); i++) {
+            ScoreSubmission submission = submissions.get(i);
+            String submissionId = submission.getSubmissionId();
+            Long teamId = submission.getTeamId();
+            JudgeScoreRow stored = submissionId != null ? storedSubmissions.get(submissionId) : null;
+            if (stored != null) {
+                results[i] = new SubmissionResult(submissionId, stored.teamId(), Status.DUPLICATE, stored.scoreId(),
+                        stored.finalScore(), null);
+                continue;
+            }
+            if (teamId == null || !eventTeams.contains(teamId)) {
+                results[i] = rejected(submission, "Team is not part of the judge's event");
+                continue;
+            }
+            if (scoredTeams.containsKey(teamId)) {
+                results[i] = new SubmissionResult(submissionId, teamId, Status.ALREADY_SCORED,
+                        scoredTeams.get(teamId).scoreId(), null, "Already scored this team");
+                continue;
+            }
+
+            long[] criterionIds = new long[criteria.size()];
+            int[] values = new int[criteria.size()];
+            double finalScore = 0.0;
+            String invalid = null;
+            Map<String, Object> scores = submission.getScores() != null ? submission.getScores() : Map.of();
+            for (int c = 0; c < criteria.size(); c++) {
+                CriterionSummary criterion = criteria.get(c);
+                Object value = scores.getOrDefault(criterion.getName(), 0);
+                if (!(value instanceof Number number)) {
+                    invalid = "Value for " + criterion.getName() + " is not a number";
+                    break;
+                }
+                criterionIds[c] = criterion.getId();
+                values[c] = number.intValue();
+                finalScore += values[c] * criterion.getWeight();
+            }
+            if (invalid != null) {
+                results[i] = rejected(submission, invalid);
+                continue;
+            }
+
+            // Later items in the same batch see this team as scored
+            scoredTeams.put(teamId, new JudgeScoreRow(null, judge.id(), teamId, submissionId, finalScore));
+            if (submissionId != null) {
+                storedSubmissions.put(submissionId, new JudgeScoreRow(null, judge.id(), teamId, submissionId, finalScore));
+            }
+            pending.add(new ScoreWriter.NewScore(judge.id(), teamId, finalScore, submission.getComment(),
+                    submissionId, criterionIds, values));
+            positions.add(i);
+        }
+    }
+
+    private static SubmissionResult rejected(ScoreSubmission submission, String message) {
+        return new SubmissionResult(submission.getSubmissionId(), submission.getTeamId(), Status.REJECTED, null, null,
+                message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.judgingsystem.service;
+
+/**
+ * Published whenever a judge's score has been stored. Listeners that keep derived
+ * state in memory should react after the surrounding transaction commits.
+ */
+public record ScoreSubmittedEvent(Long eventId, Long teamId, Long judgeId, Long scoreId, double finalScore) {
+}
@@ -0,0 +1,88 @@
+package com.example.judgingsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts many scores and their criterion values with two JDBC batches: one for the
+ * score rows (collecting the generated ids) and one for all criterion values. Runs in
+ * the caller's transaction.
+ */
+@Service
+public class ScoreWriter {
+
+    private static final String INSERT_SCORE =
+            "insert into score (judge_id, team_id, final_score, comment, submission_id) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_SCORE_CRITERION =
+            "insert into score_criterion (score_id, criterion_id, value) values (?, ?, ?)";
+
+    /**
+     * A score ready to be written; {@code criterionIds[i]} was given {@code values[i]}.
+     */
+    public record NewScore(Long judgeId, Long teamId, double finalScore, String comment, String submissionId,
+                           long[] criterionIds, int[] values) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the scores and returns their generated ids in the same order.
+     */
+    public List<Long> insert(List<NewScore> scores) {
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SCORE, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewScore score = scores.get(i);
+                        ps.setLong(1, score.judgeId());
+                        ps.setLong(2, score.teamId());
+                        ps.setDouble(3, score.finalScore());
+                        ps.setString(4, score.comment());
+                        if (score.submissionId() != null) {
+                            ps.setString(5, score.submissionId());
+                        } else {
+                            ps.setNull(5, Types.VARCHAR);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return scores.size();
+                    }
+                }, keys);
+
+        List<Long> ids = new ArrayList<>(scores.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+
+        List<long[]> criterionRows = new ArrayList<>();
+        for (int i = 0; i < scores.size(); i++) {
+            NewScore score = scores.get(i);
+            for (int c = 0; c < score.criterionIds().length; c++) {
+                criterionRows.add(new long[]{ids.get(i), score.criterionIds()[c], score.values()[c]});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SCORE_CRITERION, criterionRows, criterionRows.size(), (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setLong(2, row[1]);
+            ps.setInt(3, (int) row[2]);
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.repository.ScoreRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-judge set of the team ids the judge has already scored. Loaded with one query
+ * the first time a judge is seen and then kept current from
+ * {@link ScoreSubmittedEvent}s, so repeat submissions can be rejected without a
+ * database round-trip. A set holds only the judge's own teams, so its size does not
+ * depend on how large team ids have grown. Scores are never removed individually, so
+ * ids only get added.
+ */
+@Service
+public class ScoredTeamsCache {
+
+    private final ScoreRepository scoreRepository;
+    private final Cache<Long, Set<Long>> scoredByJudge;
+
+    @Autowired
+    public ScoredTeamsCache(ScoreRepository scoreRepository, MeterRegistry meterRegistry,
+                            @Value("${scored-teams-cache.max-judges:5000}") long maxJudges) {
+        this.scoreRepository = scoreRepository;
+        this.scoredByJudge = Caffeine.newBuilder().maximumSize(maxJudges).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, scoredByJudge, "scored-teams");
+    }
+
+    public boolean hasScored(Long judgeId, Long teamId) {
+        Set<Long> scored = scoredByJudge.getIfPresent(judgeId);
+        if (scored == null) {
+            // Queried outside the cache's locks so a virtual thread never pins its carrier on
+            // JDBC. Ids only get added, so a set cached meanwhile can simply absorb ours.
+            Set<Long> loaded = load(judgeId);
+            scored = scoredByJudge.asMap().merge(judgeId, loaded, (cached, fresh) -> {
+                cached.addAll(fresh);
+                return cached;
+            });
+        }
+        return scored.contains(teamId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        Set<Long> scored = scoredByJudge.getIfPresent(event.judgeId());
+        if (scored != null) {
+            scored.add(event.teamId());
+        }
+    }
+
+    private Set<Long> load(Long judgeId) {
+        Set<Long> scored = ConcurrentHashMap.newKeySet();
+        scored.addAll(scoreRepository.findTeamIdsByJudgeId(judgeId));
+        return scored;
+    }
+}
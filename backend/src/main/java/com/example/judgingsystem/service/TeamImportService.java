@@ -0,0 +1,143 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.dto.TeamImportReport;
+import com.example.judgingsystem.dto.TeamSummary;
+import com.example.judgingsystem.repository.TeamRepository;
+import com.example.judgingsystem.util.CsvReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams a team CSV ({@code name,number,description} after a header row) into the
+ * team table. Rows are validated one at a time and written with batched JDBC inserts,
+ * each batch in its own transaction. When a batch fails, its rows are retried one
+ * per transaction, so only the rows the database refuses are reported; bad rows never
+ * abort the import.
+ */
+@Service
+public class TeamImportService {
+
+    private static final String INSERT_TEAM =
+            "insert into team (team_name, team_number, description, event_id) values (?, ?, ?, ?)";
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${team-import.batch-size:500}")
+    private int batchSize;
+
+    private record PendingTeam(long line, String name, int number, String description) {
+    }
+
+    public TeamImportReport importTeams(Long eventId, InputStream input, Charset charset) throws IOException {
+        TeamImportReport report = new TeamImportReport();
+        Set<String> seen = new HashSet<>();
+        for (TeamSummary team : teamRepository.findSummariesByEventId(eventId)) {
+            seen.add(key(team.getTeamName(), team.getDescription()));
+        }
+
+        List<PendingTeam> batch = new ArrayList<>(batchSize);
+        try (CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(input, charset)))) {
+            List<String> header = csv.next();
+            if (header == null) {
+                return report;
+            }
+            List<String> row;
+            while ((row = csv.next()) != null) {
+                long line = csv.getRecordLine();
+                if (row.size() == 1 && row.get(0).isBlank()) {
+                    continue;
+                }
+                PendingTeam team = validate(line, row, report);
+                if (team == null) {
+                    continue;
+                }
+                if (!seen.add(key(team.name(), team.description()))) {
+                    report.reject(line, "Team with this name and description already exists in the event");
+                    continue;
+                }
+                batch.add(team);
+                if (batch.size() == batchSize) {
+                    flush(eventId, batch, report);
+                }
+            }
+        }
+        flush(eventId, batch, report);
+        return report;
+    }
+
+    private PendingTeam validate(long line, List<String> row, TeamImportReport report) {
+        if (row.size() < 3) {
+            report.reject(line, "Expected 3 columns (name, number, description) but found " + row.size());
+            return null;
+        }
+        String name = row.get(0).trim();
+        if (name.isEmpty()) {
+            report.reject(line, "Team name is empty");
+            return null;
+        }
+        int number;
+        try {
+            number = Integer.parseInt(row.get(1).trim());
+        } catch (NumberFormatException e) {
+            report.reject(line, "Team number is not a whole number: " + row.get(1).trim());
+            return null;
+        }
+        return new PendingTeam(line, name, number, row.get(2).trim());
+    }
+
+    private void flush(Long eventId, List<PendingTeam> batch, TeamImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_TEAM, batch, batch.size(),
+                    (ps, team) -> bind(ps, team, eventId)));
+            report.setImported(report.getImported() + batch.size());
+        } catch (DataAccessException e) {
+            // The batch rolled back as a whole; insert its rows one at a time to find the ones that fail
+            for (PendingTeam team : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_TEAM,
+                            ps -> bind(ps, team, eventId)));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataAccessException rowFailure) {
+                    report.reject(team.line(), "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private static void bind(PreparedStatement ps, PendingTeam team, Long eventId) throws SQLException {
+        ps.setString(1, team.name());
+        ps.setInt(2, team.number());
+        ps.setString(3, team.description());
+        ps.setLong(4, eventId);
+    }
+
+    private static String key(String name, String description) {
+        return name + '\u0000' + description;
+    }
+}
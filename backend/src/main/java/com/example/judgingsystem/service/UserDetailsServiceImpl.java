@@ -1,28 +1,40 @@
 package com.example.judgingsystem.service;
 
-import com.example.judgingsystem.model.Role;
-import com.example.judgingsystem.model.User;
 import com.example.judgingsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    @Autowired
+    private PrincipalCache principalCache;
     @Autowired
     private UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UserPrincipal user = principalCache.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        String role = user.getRole() != null ? user.getRole().toString() : "ORGANIZER";
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .roles(role)
-                .build();
+        return new AuthenticatedUser(user);
+    }
+
+    /**
+     * Called after a successful login whose stored hash was made with a lower BCrypt
+     * strength than {@code security.bcrypt.strength}, with the password hashed again
+     * at the current strength.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        principalCache.invalidate(user.getUsername());
+        UserPrincipal principal = ((AuthenticatedUser) user).getPrincipal();
+        return new AuthenticatedUser(new UserPrincipal(principal.id(), principal.email(), principal.name(), newPassword,
+                principal.role(), principal.eventId()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.example.judgingsystem.service;
+
+import com.example.judgingsystem.model.Role;
+import com.example.judgingsystem.model.User;
+
+/**
+ * Immutable snapshot of the columns of a {@link User} that authentication and the
+ * controllers need on every request. Safe to share between requests and threads,
+ * unlike the entity itself.
+ */
+public record UserPrincipal(Long id, String email, String name, String password, Role role, Long eventId) {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getName(), user.getPassword(), user.getRole(),
+                user.getEvent() != null ? user.getEvent().getId() : null);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.judgingsystem.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin JSON client for the API that times every call into {@link EndpointStats} under
+ * the given endpoint name. Calls made while seeding pass no name and are not recorded.
+ */
+class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final EndpointStats stats;
+
+    ApiClient(String baseUrl, EndpointStats stats) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    record Response(int status, String body, HttpHeaders headers) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        JsonNode json() {
+            try {
+                return MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new IllegalStateException("Not JSON: " + body, e);
+            }
+        }
+    }
+
+    Response get(String endpoint, String path, String token) throws InterruptedException {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    /**
+     * A conditional GET; a 304 means the copy tagged {@code etag} is still current.
+     */
+    Response get(String endpoint, String path, String token, String etag) throws InterruptedException {
+        return send(endpoint, request(path, token).header("If-None-Match", etag).GET().build());
+    }
+
+    Response post(String endpoint, String path, String token, Object body) throws InterruptedException {
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(write(body)))
+                .build());
+    }
+
+    Response put(String endpoint, String path, String token) throws InterruptedException {
+        return send(endpoint, request(path, token).PUT(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    Response delete(String endpoint, String path, String token) throws InterruptedException {
+        return send(endpoint, request(path, token).DELETE().build());
+    }
+
+    Response postMultipart(String path, String token, String fileName, String content) throws InterruptedException {
+        String boundary = "loadtest" + System.nanoTime();
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + content + "\r\n"
+                + "--" + boundary + "--\r\n";
+        return send(null, request(path, token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    String login(String email, String password) throws InterruptedException {
+        Response response = post(null, "/auth/login", null, Map.of("email", email, "password", password));
+        if (!response.ok()) {
+            throw new IllegalStateException("Login of " + email + " failed: " + response.status() + " " + response.body());
+        }
+        return response.json().get("token").asText();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        int status;
+        String body;
+        HttpHeaders headers;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+            headers = response.headers();
+        } catch (IOException e) {
+            status = 0;
+            body = e.toString();
+            headers = HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+        if (endpoint != null) {
+            stats.record(endpoint, System.nanoTime() - start, status);
+        }
+        return new Response(status, body, headers);
+    }
+
+    private static String write(Object body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.judgingsystem.loadtest;
+
+import com.example.judgingsystem.loadtest.EventSeeder.SeededEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the one-score-per-judge-and-team rule under concurrency. Every judge of a
+ * seeded event submits a score for every team many times at once, half through the
+ * single-score endpoint and half through the batch endpoint under distinct submission
+ * ids. Per judge and team exactly one request may store a score; the single-score
+ * endpoint must turn the others away with a 409 and the batch endpoint must report
+ * them as already scored. Anything else, a 500 in particular, is a failure, as is a
+ * judge ending up with more or fewer scores than teams.
+ *
+ * Runs against the application on the {@code embedded} profile, so a regression fails
+ * the default build.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("embedded")
+class DuplicateSubmissionTest {
+
+    private static final int TEAMS = 6;
+    private static final int CRITERIA = 3;
+    private static final int JUDGES = 3;
+    private static final int ATTEMPTS = 12;
+
+    private enum Outcome {
+        STORED, REFUSED
+    }
+
+    private record Attempt(String judge, long teamId, Future<ApiClient.Response> response, boolean batch) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private ApiClient client;
+
+    @BeforeEach
+    void connect() {
+        client = new ApiClient("http://localhost:" + port, new EndpointStats());
+    }
+
+    @Test
+    void concurrentDuplicatesStoreOneScore() throws Exception {
+        SeededEvent event = EventSeeder.seed(client, TEAMS, CRITERIA, JUDGES);
+        JsonNode teams = client.get(null, "/organizer/events/" + event.eventId() + "/teams?all=true",
+                event.organizerToken()).json();
+        List<String> judges = new ArrayList<>();
+        for (String email : event.judgeEmails()) {
+            judges.add(client.login(email, EventSeeder.PASSWORD));
+        }
+
+        List<Attempt> attempts = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String judge : judges) {
+                for (JsonNode team : teams) {
+                    long teamId = team.get("id").asLong();
+                    for (int a = 0; a < ATTEMPTS; a++) {
+                        boolean batch = a % 2 == 1;
+                        String submissionId = "duplicate-" + teamId + "-" + a + "-" + System.nanoTime();
+                        attempts.add(new Attempt(judge, teamId, executor.submit(() -> {
+                            start.await();
+                            return batch
+                                    ? client.post(null, "/judge/scores/batch", judge, Map.of("submissions",
+                                            List.of(submission(event, submissionId, teamId))))
+                                    : client.post(null, "/judge/teams/" + teamId + "/score", judge,
+                                            scores(event, teamId));
+                        }), batch));
+                    }
+                }
+            }
+            start.countDown();
+
+            List<String> failures = new ArrayList<>();
+            Map<String, Integer> storedPerPair = new HashMap<>();
+            for (Attempt attempt : attempts) {
+                ApiClient.Response response = attempt.response().get();
+                String pair = "judge " + judges.indexOf(attempt.judge()) + ", team " + attempt.teamId();
+                Outcome outcome = attempt.batch() ? batchOutcome(response) : singleOutcome(response);
+                if (outcome == null) {
+                    failures.add(pair + ": unexpected " + (attempt.batch() ? "batch" : "single-score")
+                            + " response " + response.status() + " " + response.body());
+                } else if (outcome == Outcome.STORED) {
+                    storedPerPair.merge(pair, 1, Integer::sum);
+                }
+            }
+            for (int j = 0; j < judges.size(); j++) {
+                for (JsonNode team : teams) {
+                    String pair = "judge " + j + ", team " + team.get("id").asLong();
+                    int stored = storedPerPair.getOrDefault(pair, 0);
+                    if (stored != 1) {
+                        failures.add(pair + ": " + stored + " requests reported a stored score");
+                    }
+                }
+                JsonNode scored = client.get(null, "/judge/scored-teams?all=true", judges.get(j)).json();
+                if (scored.size() != teams.size()) {
+                    failures.add("judge " + j + " has " + scored.size() + " scores for " + teams.size() + " teams");
+                }
+            }
+            client.delete(null, "/organizer/events/" + event.eventId(), event.organizerToken());
+            assertTrue(failures.isEmpty(), () -> String.join("\n", failures));
+        }
+    }
+
+    private static Outcome singleOutcome(ApiClient.Response response) {
+        if (response.status() == 409) {
+            return Outcome.REFUSED;
+        }
+        return response.ok() && "CREATED".equals(response.json().path("status").asText()) ? Outcome.STORED : null;
+    }
+
+    private static Outcome batchOutcome(ApiClient.Response response) {
+        if (!response.ok()) {
+            return null;
+        }
+        return switch (response.json().path(0).path("status").asText()) {
+            case "CREATED" -> Outcome.STORED;
+            case "ALREADY_SCORED" -> Outcome.REFUSED;
+            default -> null;
+        };
+    }
+
+    private static Map<String, Object> submission(SeededEvent event, String submissionId, long teamId) {
+        return Map.of("submissionId", submissionId, "teamId", teamId, "comment", "Duplicate check",
+                "scores", scores(event, teamId));
+    }
+
+    private static Map<String, Object> scores(SeededEvent event, long teamId) {
+        Map<String, Object> scores = new HashMap<>();
+        for (int c = 0; c < event.criterionNames().size(); c++) {
+            scores.put(event.criterionNames().get(c), 1 + (int) ((teamId + c) % 10));
+        }
+        return scores;
+    }
+}
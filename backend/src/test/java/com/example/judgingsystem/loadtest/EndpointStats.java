@@ -0,0 +1,70 @@
+package com.example.judgingsystem.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and error count per endpoint, shared by all clients.
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private record Endpoint(Histogram latency, LongAdder errors, ConcurrentMap<Integer, LongAdder> statuses) {
+    }
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    void record(String endpoint, long nanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint(
+                new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3), new LongAdder(), new ConcurrentHashMap<>()));
+        stats.latency().recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+        if (status < 200 || status >= 300) {
+            stats.errors().increment();
+            stats.statuses().computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Prints one summary line per endpoint and writes each endpoint's full percentile
+     * distribution to {@code <name>.hgrm} in the report directory.
+     */
+    void report(PrintStream out, Path reportDirectory) throws IOException {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        Files.createDirectories(reportDirectory);
+        out.printf("%-44s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latency = entry.getValue().latency().copy();
+            out.printf("%-44s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), latency.getTotalCount(), entry.getValue().errors().sum(),
+                    latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+            if (!entry.getValue().statuses().isEmpty()) {
+                out.printf("%-44s statuses %s%n", "", new TreeMap<>(entry.getValue().statuses()));
+            }
+            Path file = reportDirectory.resolve(entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                latency.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.printf("%nMeasured for %.1f s; distributions in %s%n", seconds, reportDirectory.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
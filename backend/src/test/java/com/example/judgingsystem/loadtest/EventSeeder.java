@@ -0,0 +1,72 @@
+package com.example.judgingsystem.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates an organizer, an event with teams and equally weighted criteria, and its
+ * judges, all through the public API so it works against any running server.
+ */
+final class EventSeeder {
+
+    static final String PASSWORD = "password123";
+
+    record SeededEvent(long eventId, String organizerEmail, String organizerToken, List<String> criterionNames,
+                       List<String> judgeEmails) {
+    }
+
+    private EventSeeder() {
+    }
+
+    static SeededEvent seed(ApiClient client, int teams, int criteria, int judges) throws Exception {
+        String organizerEmail = "organizer" + System.nanoTime() + "@loadtest.local";
+        client.post(null, "/auth/register", null, Map.of(
+                "name", "Load test organizer", "email", organizerEmail, "password", PASSWORD, "role", "ORGANIZER"));
+        String token = client.login(organizerEmail, PASSWORD);
+
+        List<Map<String, Object>> criterionList = new ArrayList<>();
+        List<String> criterionNames = new ArrayList<>();
+        for (int c = 0; c < criteria; c++) {
+            criterionNames.add("Criterion " + c);
+            criterionList.add(Map.of("name", "Criterion " + c, "weight", 1.0 / criteria));
+        }
+        ApiClient.Response created = client.post(null, "/organizer/events", token, Map.of(
+                "name", "Load test " + organizerEmail, "date", LocalDate.now().toString(), "criteria", criterionList));
+        long eventId = created.json().get("id").asLong();
+
+        client.postMultipart("/organizer/events/" + eventId + "/teams/upload", token, "teams.csv", teamsCsv(0, teams));
+
+        List<String> judgeEmails = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ApiClient.Response>> added = new ArrayList<>();
+            for (int j = 0; j < judges; j++) {
+                String email = "judge" + eventId + "-" + j + "@loadtest.local";
+                judgeEmails.add(email);
+                added.add(executor.submit(() -> client.post(null, "/organizer/events/" + eventId + "/judges", token,
+                        Map.of("email", email, "name", "Judge " + email))));
+            }
+            for (Future<ApiClient.Response> response : added) {
+                if (!response.get().ok()) {
+                    throw new IllegalStateException("Adding a judge failed: " + response.get().body());
+                }
+            }
+        }
+        return new SeededEvent(eventId, organizerEmail, token, criterionNames, judgeEmails);
+    }
+
+    /**
+     * A team upload with {@code count} rows, numbered from {@code first}.
+     */
+    static String teamsCsv(int first, int count) {
+        StringBuilder csv = new StringBuilder("name,number,description\n");
+        for (int t = first; t < first + count; t++) {
+            csv.append("Team ").append(t).append(',').append(t + 1).append(",Load test team ").append(t).append('\n');
+        }
+        return csv.toString();
+    }
+}
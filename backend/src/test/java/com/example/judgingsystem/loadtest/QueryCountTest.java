@@ -0,0 +1,329 @@
+package com.example.judgingsystem.loadtest;
+
+import com.example.judgingsystem.loadtest.EventSeeder.SeededEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards against queries per request that grow with the data. Seeds a small and a
+ * large event, calls every endpoint the same way on both, and reads how many SQL
+ * statements each call sent from the {@code http.server.requests.queries} summary the
+ * application records. It fails when an endpoint sends more statements on the large
+ * event than on the small one, when it exceeds its budget, or when a new endpoint has
+ * no probe here yet.
+ *
+ * Runs against the application on the {@code embedded} profile, so a regression fails
+ * the default build.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("embedded")
+class QueryCountTest {
+
+    private static final int CRITERIA = 3;
+    private static final Size SMALL = new Size(3, 2);
+    private static final Size LARGE = new Size(40, 12);
+
+    private static final long DEFAULT_BUDGET = 8;
+    private static final String NOT_MODIFIED = " (not modified)";
+    private static final String ALL = " (all=true)";
+    private static final String NEXT_PAGE = " (next page by name)";
+    private static final String ARCHIVED = " (archived)";
+
+    private static final Map<String, Long> BUDGETS = Map.of(
+            // Write paths that take row locks and maintain aggregates; still a constant per call
+            "POST /judge/teams/{teamId}/score", 16L,
+            "POST /judge/scores/batch", 16L,
+            "DELETE /organizer/events/{eventId}", 16L,
+            // Snapshots and purges a whole event, once
+            "POST /organizer/events/{eventId}/archive", 24L,
+            // Answered from the in-memory event version alone
+            "GET /organizer/events/{eventId}/teams" + NOT_MODIFIED, 0L,
+            "GET /organizer/events/{eventId}/judges" + NOT_MODIFIED, 0L,
+            "GET /organizer/events/{eventId}/leaderboard" + NOT_MODIFIED, 0L,
+            "GET /judge/teams" + NOT_MODIFIED, 0L,
+            // Read from the event's snapshot file
+            "GET /organizer/events/{eventId}/score-matrix" + ARCHIVED, 0L,
+            "GET /organizer/events/{eventId}/detailed-scores" + ARCHIVED, 0L);
+
+    // Long-lived streams and the error page are not request/response endpoints
+    private static final Set<String> UNCHECKED = Set.of(
+            "GET /judge/stream", "GET /organizer/events/{eventId}/stream", "/error");
+
+    private static final long RECORD_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private record Size(int teams, int judges) {
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        ApiClient.Response send() throws InterruptedException;
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private ApiClient client;
+
+    @BeforeEach
+    void connect() {
+        client = new ApiClient("http://localhost:" + port, new EndpointStats());
+    }
+
+    @Test
+    void queryCountsAreConstantAndWithinBudget() throws Exception {
+        // The small event is probed before the large one exists, so endpoints spanning
+        // all events are compared at one event against two as well
+        Map<String, Long> small = new LinkedHashMap<>();
+        Map<String, Long> large = new LinkedHashMap<>();
+        SeededEvent smallEvent = probe(SMALL, small);
+        SeededEvent largeEvent = probe(LARGE, large);
+        delete(smallEvent, small);
+        delete(largeEvent, large);
+
+        List<String> failures = new ArrayList<>();
+        System.out.printf("%-60s %7s %7s %7s%n", "endpoint",
+                SMALL.teams() + "x" + SMALL.judges(), LARGE.teams() + "x" + LARGE.judges(), "budget");
+        for (String endpoint : new TreeSet<>(large.keySet())) {
+            long budget = BUDGETS.getOrDefault(endpoint, DEFAULT_BUDGET);
+            long smallCount = small.get(endpoint);
+            long largeCount = large.get(endpoint);
+            String verdict = "";
+            if (largeCount > smallCount) {
+                verdict = "grows with the data";
+            } else if (largeCount > budget) {
+                verdict = "over budget";
+            }
+            if (!verdict.isEmpty()) {
+                failures.add(endpoint + " " + verdict);
+            }
+            System.out.printf("%-60s %7d %7d %7d %s%n", endpoint, smallCount, largeCount, budget, verdict);
+        }
+        for (String endpoint : mappedEndpoints()) {
+            if (!large.containsKey(endpoint) && !UNCHECKED.contains(endpoint)) {
+                failures.add(endpoint + " has no probe in " + QueryCountTest.class.getSimpleName());
+            }
+        }
+
+        assertTrue(failures.isEmpty(), () -> String.join("\n", failures));
+    }
+
+    /**
+     * Seeds an event of the given size, has every judge score all teams but the last,
+     * and then calls each endpoint once, adding the statements each call sent to
+     * {@code counts}. Last, the event is archived and its reads are probed again. The
+     * event is left in place for {@link #delete}.
+     */
+    private SeededEvent probe(Size size, Map<String, Long> counts) throws Exception {
+        SeededEvent event = EventSeeder.seed(client, size.teams(), CRITERIA, size.judges());
+        String organizer = event.organizerToken();
+        String eventPath = "/organizer/events/" + event.eventId();
+
+        List<String> judges = new ArrayList<>();
+        for (String email : event.judgeEmails()) {
+            judges.add(client.login(email, EventSeeder.PASSWORD));
+        }
+        JsonNode teams = client.get(null, eventPath + "/teams?all=true", organizer).json();
+        long lastTeamId = teams.get(teams.size() - 1).get("id").asLong();
+        for (String judge : judges) {
+            List<Map<String, Object>> submissions = new ArrayList<>();
+            for (int t = 0; t < teams.size() - 1; t++) {
+                submissions.add(submission(event, teams.get(t).get("id").asLong()));
+            }
+            expectOk("Seeding scores", client.post(null, "/judge/scores/batch", judge,
+                    Map.of("submissions", submissions)));
+        }
+
+        String judge = judges.get(0);
+        measure(counts, "POST", "/auth/login", () -> client.post(null, "/auth/login", null,
+                Map.of("email", event.judgeEmails().get(0), "password", EventSeeder.PASSWORD)));
+        measure(counts, "POST", "/auth/register", () -> client.post(null, "/auth/register", null, Map.of(
+                "name", "Probe", "email", "probe" + event.eventId() + "@loadtest.local",
+                "password", EventSeeder.PASSWORD, "role", "JUDGE")));
+        measure(counts, "POST", "/auth/stream-token", () -> client.post(null, "/auth/stream-token", organizer, Map.of()));
+        measure(counts, "GET", "/auth/judges", () -> client.get(null, "/auth/judges", organizer));
+        measurePages(counts, "/auth/judges", "/auth/judges", organizer);
+
+        measure(counts, "GET", "/organizer/events", () -> client.get(null, "/organizer/events", organizer));
+        for (String view : List.of("teams", "judges", "leaderboard", "score-matrix", "analytics",
+                "detailed-scores", "export")) {
+            measure(counts, "GET", "/organizer/events/{eventId}/" + view,
+                    () -> client.get(null, eventPath + "/" + view, organizer));
+        }
+        for (String view : List.of("teams", "judges")) {
+            measurePages(counts, "/organizer/events/{eventId}/" + view, eventPath + "/" + view, organizer);
+        }
+        for (String view : List.of("teams", "judges", "leaderboard")) {
+            measureNotModified(counts, "/organizer/events/{eventId}/" + view, eventPath + "/" + view, organizer);
+        }
+        measure(counts, "GET", "/organizer/cache-stats", () -> client.get(null, "/organizer/cache-stats", organizer));
+
+        measure(counts, "GET", "/judge/teams", () -> client.get(null, "/judge/teams", judge));
+        measureNotModified(counts, "/judge/teams", "/judge/teams", judge);
+        measure(counts, "GET", "/judge/scored-teams", () -> client.get(null, "/judge/scored-teams", judge));
+        measurePages(counts, "/judge/scored-teams", "/judge/scored-teams", judge);
+        measure(counts, "POST", "/judge/teams/{teamId}/score", () -> client.post(null,
+                "/judge/teams/" + lastTeamId + "/score", judge, submission(event, lastTeamId).get("scores")));
+        measure(counts, "POST", "/judge/scores/batch", () -> client.post(null, "/judge/scores/batch", judges.get(1),
+                Map.of("submissions", List.of(submission(event, lastTeamId)))));
+        Map<String, Object> queued = submission(event, lastTeamId);
+        measure(counts, "POST", "/judge/scores/queue", () -> client.post(null, "/judge/scores/queue", judge, queued));
+        measure(counts, "GET", "/judge/scores/queue/{submissionId}",
+                () -> client.get(null, "/judge/scores/queue/" + queued.get("submissionId"), judge));
+
+        measure(counts, "POST", "/organizer/events/{eventId}/teams", () -> client.post(null, eventPath + "/teams",
+                organizer, Map.of("teamName", "Late team", "teamNumber", size.teams() + 1, "description", "Added late")));
+        measure(counts, "POST", "/organizer/events/{eventId}/teams/upload", () -> client.postMultipart(
+                eventPath + "/teams/upload", organizer, "late.csv", EventSeeder.teamsCsv(size.teams() + 1, 2)));
+        measure(counts, "POST", "/organizer/events/{eventId}/judges", () -> client.post(null, eventPath + "/judges",
+                organizer, Map.of("email", "late" + event.eventId() + "@loadtest.local", "name", "Late judge")));
+        measure(counts, "PUT", "/organizer/events/{eventId}/normalization",
+                () -> client.put(null, eventPath + "/normalization?method=Z_SCORE", organizer));
+        measure(counts, "POST", "/organizer/events/{eventId}/leaderboard/rebuild",
+                () -> client.post(null, eventPath + "/leaderboard/rebuild", organizer, Map.of()));
+        measure(counts, "POST", "/organizer/events/{eventId}/analytics/rebuild",
+                () -> client.post(null, eventPath + "/analytics/rebuild", organizer, Map.of()));
+        measure(counts, "POST", "/organizer/events", () -> client.post(null, "/organizer/events", organizer, Map.of(
+                "name", "Probe event", "date", "2026-01-01",
+                "criteria", List.of(Map.of("name", "Only", "weight", 1.0)))));
+
+        measure(counts, "POST", "/organizer/events/{eventId}/archive",
+                () -> client.post(null, eventPath + "/archive?purge=true", organizer, Map.of()));
+        for (String view : List.of("leaderboard", "score-matrix", "detailed-scores", "export")) {
+            measure(counts, "GET /organizer/events/{eventId}/" + view + ARCHIVED, "GET",
+                    "/organizer/events/{eventId}/" + view, () -> client.get(null, eventPath + "/" + view, organizer));
+        }
+        return event;
+    }
+
+    private void delete(SeededEvent event, Map<String, Long> counts) throws InterruptedException {
+        measure(counts, "DELETE", "/organizer/events/{eventId}",
+                () -> client.delete(null, "/organizer/events/" + event.eventId(), event.organizerToken()));
+    }
+
+    private Map<String, Object> submission(SeededEvent event, long teamId) {
+        Map<String, Object> scores = new HashMap<>();
+        for (int c = 0; c < event.criterionNames().size(); c++) {
+            scores.put(event.criterionNames().get(c), 1 + (int) ((teamId + c) % 10));
+        }
+        return Map.of("submissionId", "probe-" + teamId + "-" + System.nanoTime(), "teamId", teamId,
+                "comment", "Probe", "scores", scores);
+    }
+
+    /**
+     * Sends the call and stores how many statements the application recorded for it.
+     * The count is recorded once the response has gone out, so this waits for it.
+     */
+    private void measure(Map<String, Long> counts, String method, String uri, Call call) throws InterruptedException {
+        measure(counts, method + " " + uri, method, uri, call);
+    }
+
+    /**
+     * Repeats a GET with the ETag it just returned, which must be answered with a 304.
+     */
+    private void measureNotModified(Map<String, Long> counts, String uri, String path, String token)
+            throws InterruptedException {
+        ApiClient.Response response = client.get(null, path, token);
+        String etag = response.headers().firstValue("ETag")
+                .orElseThrow(() -> new IllegalStateException("No ETag on GET " + uri));
+        measure(counts, "GET " + uri + NOT_MODIFIED, "GET", uri, () -> {
+            ApiClient.Response conditional = client.get(null, path, token, etag);
+            if (conditional.status() != 304) {
+                throw new IllegalStateException("GET " + uri + " with a current ETag returned " + conditional.status());
+            }
+            return conditional;
+        });
+    }
+
+    /**
+     * Measures a paginated list as one unpaginated array and as a page reached through
+     * a cursor, neither of which may grow with the data either.
+     */
+    private void measurePages(Map<String, Long> counts, String uri, String path, String token)
+            throws InterruptedException {
+        measure(counts, "GET " + uri + ALL, "GET", uri, () -> client.get(null, path + "?all=true", token));
+        String cursor = client.get(null, path + "?sort=name&limit=1", token).json().get("nextCursor").asText();
+        measure(counts, "GET " + uri + NEXT_PAGE, "GET", uri,
+                () -> client.get(null, path + "?sort=name&limit=1&after=" + cursor, token));
+    }
+
+    private void measure(Map<String, Long> counts, String key, String method, String uri, Call call)
+            throws InterruptedException {
+        long countBefore = 0;
+        double totalBefore = 0;
+        DistributionSummary summary = summary(method, uri);
+        if (summary != null) {
+            countBefore = summary.count();
+            totalBefore = summary.totalAmount();
+        }
+        ApiClient.Response response = call.send();
+        if (response.status() != 304) {
+            expectOk(method + " " + uri, response);
+        }
+        long deadline = System.nanoTime() + RECORD_TIMEOUT_NANOS;
+        while ((summary = summary(method, uri)) == null || summary.count() == countBefore) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No query count recorded for " + method + " " + uri);
+            }
+            Thread.sleep(5);
+        }
+        counts.put(key, Math.round(summary.totalAmount() - totalBefore));
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return meterRegistry.find("http.server.requests.queries").tag("method", method).tag("uri", uri).summary();
+    }
+
+    private static void expectOk(String what, ApiClient.Response response) {
+        if (!response.ok()) {
+            throw new IllegalStateException(what + " returned " + response.status() + ": " + response.body());
+        }
+    }
+
+    /**
+     * Every method and path the application maps, as {@code METHOD /path}; mappings for
+     * any method are listed by path alone.
+     */
+    private Set<String> mappedEndpoints() {
+        Set<String> endpoints = new TreeSet<>();
+        for (RequestMappingInfo mapping : handlerMapping.getHandlerMethods().keySet()) {
+            Set<RequestMethod> methods = mapping.getMethodsCondition().getMethods();
+            for (String pattern : mapping.getPatternValues()) {
+                if (methods.isEmpty()) {
+                    endpoints.add(pattern);
+                }
+                for (RequestMethod method : methods) {
+                    endpoints.add(method.name() + " " + pattern);
+                }
+            }
+        }
+        return endpoints;
+    }
+}
@@ -1,4 +1,137 @@
+import axios from 'axios';
+
 // API configuration
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8081';
 
-export default API_BASE_URL;
\ No newline at end of file
+// Logs in, waiting and retrying while the server turns logins away because too many arrive at once
+export async function login(credentials, attempts = 10) {
+  for (let attempt = 1; ; attempt++) {
+    try {
+      return await axios.post(`${API_BASE_URL}/auth/login`, credentials);
+    } catch (error) {
+      if (error.response?.status !== 429 || attempt >= attempts) {
+        throw error;
+      }
+      const seconds = Number(error.response.headers['retry-after']) || 1;
+      // Jitter spreads out the retries of everyone who was turned away at the same moment
+      await new Promise(resolve => setTimeout(resolve, seconds * 1000 * (1 + Math.random())));
+    }
+  }
+}
+
+// Reads every page of a paginated list by following its cursor, for views that show the whole list
+export async function fetchAllPages(path, config = {}, params = {}) {
+  const items = [];
+  let after;
+  do {
+    const response = await axios.get(`${API_BASE_URL}${path}`, {
+      ...config,
+      params: { ...params, limit: 200, after }
+    });
+    items.push(...response.data.items);
+    after = response.data.nextCursor;
+  } while (after);
+  return items;
+}
+
+// Scores are submitted synchronously unless the build sets VITE_SCORE_QUEUE=true, which sends them
+// through the ingestion queue instead. A queued score is not stored until its group commits.
+export const SCORE_QUEUE = import.meta.env.VITE_SCORE_QUEUE === 'true';
+
+const sleep = (ms) => new Promise(resolve => setTimeout(resolve, ms));
+
+// Submits one score through the ingestion queue and resolves with its final result (CREATED or DUPLICATE),
+// or rejects with the server's message when it is refused. A 202 only means the score is queued in memory,
+// so the ticket is polled until it is written. The server forgets tickets it has not written when it
+// restarts: a 404 for the ticket, or a FAILED one, means the score was not stored and is submitted again
+// under the same submissionId, which the server stores at most once.
+export async function submitScoreQueued(submission, attempts = 20) {
+  const headers = { Authorization: `Bearer ${localStorage.getItem('token')}` };
+  const ticket = { ...submission, submissionId: submission.submissionId || crypto.randomUUID() };
+  let result = null;
+  for (let attempt = 1; attempt <= attempts; attempt++) {
+    try {
+      if (result === null) {
+        result = (await axios.post(`${API_BASE_URL}/judge/scores/queue`, ticket, { headers })).data;
+      } else {
+        await sleep(Math.min(200 * attempt, 2000));
+        result = (await axios.get(`${API_BASE_URL}/judge/scores/queue/${encodeURIComponent(ticket.submissionId)}`,
+          { headers })).data;
+      }
+    } catch (error) {
+      const status = error.response?.status;
+      if (status === 429) {
+        await sleep((Number(error.response.headers['retry-after']) || 1) * 1000 * (1 + Math.random()));
+      } else if (status !== 404 && status !== undefined && status < 500) {
+        throw error;
+      }
+      // Unknown ticket, lost response or server error: submit again under the same id
+      result = null;
+      continue;
+    }
+    switch (result.status) {
+      case 'CREATED':
+      case 'DUPLICATE':
+        return result;
+      case 'ALREADY_SCORED':
+      case 'REJECTED':
+        throw new Error(result.message);
+      case 'FAILED':
+        result = null;
+        break;
+      default:
+        // QUEUED: poll the ticket
+    }
+  }
+  throw new Error('Score not confirmed, please try again');
+}
+
+const UPDATE_TYPES = ['SCORE_SUBMITTED', 'TEAM_ADDED', 'TEAMS_IMPORTED', 'JUDGE_ASSIGNED', 'EVENT_DELETED', 'RESET'];
+
+// Follows a live update stream, calling onUpdate(type, data) for each update. EventSource cannot send
+// the Authorization header, so every connection is opened with a short-lived stream token in the URL.
+// When a connection is lost for good (the token in its URL has expired by then) a new one is opened
+// with a fresh token and onUpdate gets a RESET, since updates may have been missed meanwhile.
+// Returns a function that closes the stream.
+export function subscribeToUpdates(path, onUpdate) {
+  let source = null;
+  let retry = null;
+  let closed = false;
+
+  const connect = async (reconnecting) => {
+    try {
+      const response = await axios.post(`${API_BASE_URL}/auth/stream-token`, null, {
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
+      });
+      if (closed) return;
+      const url = `${API_BASE_URL}${path}?access_token=${encodeURIComponent(response.data.token)}`;
+      source = new EventSource(url);
+      UPDATE_TYPES.forEach(type => source.addEventListener(type, event => onUpdate(type, JSON.parse(event.data))));
+      source.onerror = () => {
+        if (source.readyState === EventSource.CLOSED) {
+          scheduleReconnect();
+        }
+      };
+      if (reconnecting) {
+        onUpdate('RESET', {});
+      }
+    } catch (error) {
+      console.error(error);
+      scheduleReconnect();
+    }
+  };
+
+  const scheduleReconnect = () => {
+    if (closed) return;
+    retry = setTimeout(() => connect(true), 5000 * (1 + Math.random()));
+  };
+
+  connect(false);
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    source?.close();
+  };
+}
+
+export default API_BASE_URL;
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import axios from 'axios';
-import API_BASE_URL from '../api';
+import API_BASE_URL, { SCORE_QUEUE, fetchAllPages, submitScoreQueued, subscribeToUpdates } from '../api';
 import llamaImg from '../assets/Llama.jpg';
 import wethinkcodeLogo from '../assets/wethinkcode-logo.png';
 import Navbar from './Navbar';
@@ -16,6 +16,10 @@ function JudgeDashboard({ onLogout, logo }) {
 
   useEffect(() => {
     fetchTeamsToScore();
+    // New teams show up without a reload
+    return subscribeToUpdates('/judge/stream', (type) => {
+      if (type === 'TEAM_ADDED' || type === 'TEAMS_IMPORTED' || type === 'RESET') fetchTeamsToScore();
+    });
   }, []);
 
 
@@ -27,12 +31,12 @@ function JudgeDashboard({ onLogout, logo }) {
         axios.get(`${API_BASE_URL}/judge/teams`, {
           headers: { Authorization: `Bearer ${token}` }
         }),
-        axios.get(`${API_BASE_URL}/judge/scored-teams`, {
+        fetchAllPages('/judge/scored-teams', {
           headers: { Authorization: `Bearer ${token}` }
         })
       ]);
       setTeamsToScore(teamsRes.data);
-      setScoredTeams(scoredRes.data);
+      setScoredTeams(scoredRes);
     } catch (error) {
       console.error(error);
       setTeamsToScore([]);
@@ -45,7 +49,6 @@ function JudgeDashboard({ onLogout, logo }) {
   const submitScore = async () => {
     setLoading(true);
     try {
-      const token = localStorage.getItem('token');
       const criteriaScores = {
         Innovation: scores.innovation,
         'Technical Complexity': scores.technicalComplexity,
@@ -53,13 +56,22 @@ function JudgeDashboard({ onLogout, logo }) {
         Feasibility: scores.feasibility,
         Presentation: scores.presentation
       };
-      await axios.post(`${API_BASE_URL}/judge/teams/${scoringTeam.id}/score`, {
-        ...criteriaScores,
-        comment: scores.comment,
-        judgeName: judgeName
-      }, {
-        headers: { Authorization: `Bearer ${token}` }
-      });
+      if (SCORE_QUEUE) {
+        await submitScoreQueued({
+          teamId: scoringTeam.id,
+          scores: criteriaScores,
+          comment: scores.comment
+        });
+      } else {
+        const token = localStorage.getItem('token');
+        await axios.post(`${API_BASE_URL}/judge/teams/${scoringTeam.id}/score`, {
+          ...criteriaScores,
+          comment: scores.comment,
+          judgeName: judgeName
+        }, {
+          headers: { Authorization: `Bearer ${token}` }
+        });
+      }
       setScoringTeam(null);
       setScores({ innovation: 5, technicalComplexity: 5, uxui: 5, feasibility: 5, presentation: 5, comment: '' });
       fetchTeamsToScore();
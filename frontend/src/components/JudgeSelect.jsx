@@ -1,7 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import axios from 'axios';
-import API_BASE_URL from '../api';
+import { fetchAllPages, login } from '../api';
 import wethinkcodeLogo from '../assets/wethinkcode-logo.png';
 
 function JudgeSelect() {
@@ -17,8 +16,7 @@ function JudgeSelect() {
 
   const fetchJudges = async () => {
     try {
-      const response = await axios.get(`${API_BASE_URL}/auth/judges`);
-      setJudges(response.data);
+      setJudges(await fetchAllPages('/auth/judges', {}, { sort: 'name' }));
     } catch (error) {
       console.error('Failed to fetch judges:', error);
     }
@@ -28,7 +26,7 @@ function JudgeSelect() {
     e.preventDefault();
     if (selectedJudge) {
       try {
-        const response = await axios.post(`${API_BASE_URL}/auth/login`, {
+        const response = await login({
           email: selectedJudge,
           password: 'password123'
         });
@@ -1,7 +1,7 @@
 import { useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import axios from 'axios';
-import API_BASE_URL from '../api';
+import API_BASE_URL, { login } from '../api';
 
 function Login({ onLogin }) {
   const [isLogin, setIsLogin] = useState(true);
@@ -15,7 +15,7 @@ function Login({ onLogin }) {
   const handleLogin = async () => {
     setLoading(true);
     try {
-      const response = await axios.post(`${API_BASE_URL}/auth/login`, { email, password });
+      const response = await login({ email, password });
       localStorage.setItem('token', response.data.token);
       localStorage.setItem('role', response.data.role);
       onLogin(response.data.role);
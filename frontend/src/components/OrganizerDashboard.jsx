@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import axios from 'axios';
-import API_BASE_URL from '../api';
+import API_BASE_URL, { fetchAllPages, subscribeToUpdates } from '../api';
 import ScoringOverview from './ScoringOverview';
 import Navbar from './Navbar';
 
@@ -28,6 +28,30 @@ function OrganizerDashboard({ onLogout, logo }) {
     fetchEvents();
   }, []);
 
+  // Keeps the selected event's lists current while it is open
+  useEffect(() => {
+    if (!selectedEvent) return;
+    const eventId = selectedEvent.id;
+    // Scores arrive in bursts at the bell; one leaderboard read covers every score of the last 500 ms
+    let leaderboardRefresh = null;
+    const refreshLeaderboard = () => {
+      if (leaderboardRefresh) return;
+      leaderboardRefresh = setTimeout(() => {
+        leaderboardRefresh = null;
+        fetchLeaderboard(eventId);
+      }, 500);
+    };
+    const unsubscribe = subscribeToUpdates(`/organizer/events/${eventId}/stream`, (type) => {
+      if (type === 'TEAM_ADDED' || type === 'TEAMS_IMPORTED' || type === 'RESET') fetchTeams(eventId);
+      if (type === 'JUDGE_ASSIGNED' || type === 'RESET') fetchJudges(eventId);
+      if (type === 'SCORE_SUBMITTED' || type === 'RESET') refreshLeaderboard();
+    });
+    return () => {
+      clearTimeout(leaderboardRefresh);
+      unsubscribe();
+    };
+  }, [selectedEvent]);
+
   const fetchEvents = async () => {
     setLoading(true);
     try {
@@ -74,10 +98,9 @@ function OrganizerDashboard({ onLogout, logo }) {
   const fetchTeams = async (eventId) => {
     try {
       const token = localStorage.getItem('token');
-      const response = await axios.get(`${API_BASE_URL}/organizer/events/${eventId}/teams`, {
+      setTeams(await fetchAllPages(`/organizer/events/${eventId}/teams`, {
         headers: { Authorization: `Bearer ${token}` }
-      });
-      setTeams(response.data);
+      }));
     } catch (error) {
       console.error(error);
       setTeams([]);
@@ -87,10 +110,9 @@ function OrganizerDashboard({ onLogout, logo }) {
   const fetchJudges = async (eventId) => {
     try {
       const token = localStorage.getItem('token');
-      const response = await axios.get(`${API_BASE_URL}/organizer/events/${eventId}/judges`, {
+      setJudges(await fetchAllPages(`/organizer/events/${eventId}/judges`, {
         headers: { Authorization: `Bearer ${token}` }
-      });
-      setJudges(response.data);
+      }));
     } catch (error) {
       console.error(error);
       setJudges([]);
@@ -161,12 +183,14 @@ function OrganizerDashboard({ onLogout, logo }) {
       } else if (type === 'upload') {
         const formDataUpload = new FormData();
         formDataUpload.append('file', formData.file);
-        await axios.post(`${API_BASE_URL}/organizer/events/${eventId}/teams/upload`, formDataUpload, {
+        const response = await axios.post(`${API_BASE_URL}/organizer/events/${eventId}/teams/upload`, formDataUpload, {
           headers: { Authorization: `Bearer ${token}`, 'Content-Type': 'multipart/form-data' }
         });
         fetchTeams(eventId);
         fetchEvents(); // Refresh event counts
-        alert('Teams uploaded successfully');
+        const { imported, rejected, errors } = response.data;
+        const details = errors.slice(0, 10).map(e => `Line ${e.line}: ${e.message}`).join('\n');
+        alert(`${imported} teams uploaded successfully` + (rejected > 0 ? `, ${rejected} rows rejected:\n${details}` : ''));
       } else if (type === 'judge') {
         await axios.post(`${API_BASE_URL}/organizer/events/${eventId}/judges`, formData, {
           headers: { Authorization: `Bearer ${token}` }